@@ -0,0 +1,77 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConcurrentBaseBenchmark {
+	
+	@Param({"0", "1", "8"})
+	private int listeners;
+	
+	private ConcurrentInteger integer;
+	private ConcurrentReference<Object> reference;
+	private Object [] values;
+	
+	@Setup
+	public void setup(Blackhole blackhole) {
+		integer = new ConcurrentInteger();
+		reference = new ConcurrentReference<>();
+		values = new Object[]{new Object(), new Object()};
+		for (int i = 0; i < listeners; i++) {
+			integer.addSimpleListener("listener-" + i, (Integer next) -> blackhole.consume(next));
+			reference.addSimpleListener("listener-" + i, next -> blackhole.consume(next));
+		}
+	}
+	
+	@Benchmark
+	public int integerIncrement() {
+		return integer.incrementAndGet();
+	}
+	
+	@Benchmark
+	public int integerGet() {
+		return integer.get();
+	}
+	
+	@Benchmark
+	public Object referenceSet() {
+		Object prev = reference.get();
+		return reference.set(prev == values[0] ? values[1] : values[0]);
+	}
+	
+}
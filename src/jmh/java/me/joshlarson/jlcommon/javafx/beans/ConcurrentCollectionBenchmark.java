@@ -0,0 +1,101 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConcurrentCollectionBenchmark {
+	
+	@Param({"1000", "100000"})
+	private int size;
+	
+	@Param({"0", "1"})
+	private int listeners;
+	
+	private ConcurrentList<Integer> list;
+	private ConcurrentSet<Integer> set;
+	
+	@Setup
+	public void setup(Blackhole blackhole) {
+		list = new ConcurrentList<>();
+		set = new ConcurrentSet<>();
+		for (int i = 0; i < size; i++) {
+			list.add(i);
+			set.add(i);
+		}
+		for (int i = 0; i < listeners; i++) {
+			list.addCollectionChangedListener("listener-" + i, (obs, changes) -> blackhole.consume(changes));
+			set.addCollectionChangedListener("listener-" + i, (obs, changes) -> blackhole.consume(changes));
+		}
+	}
+	
+	@Benchmark
+	public Integer listAddRemove() {
+		synchronized (list.getMutex()) {
+			list.add(-1);
+			return list.remove(list.size() - 1);
+		}
+	}
+	
+	@Benchmark
+	public boolean setAddRemove() {
+		int value = -1 - ThreadLocalRandom.current().nextInt(size);
+		set.add(value);
+		return set.remove(value);
+	}
+	
+	@Benchmark
+	public void listBatchAdd() {
+		list.batch(() -> {
+			for (int i = 0; i < 100; i++)
+				list.add(i);
+		});
+		synchronized (list.getMutex()) {
+			list.getValue().subList(size, list.size()).clear();
+		}
+	}
+	
+	@Benchmark
+	public long listIterate() {
+		long sum = 0;
+		for (Integer i : list)
+			sum += i;
+		return sum;
+	}
+	
+}
@@ -0,0 +1,43 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import javafx.fxml.Initializable;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URL;
+import java.util.ResourceBundle;
+import java.util.function.Consumer;
+
+/**
+ * The code a compiler would generate for benchmark.fxml
+ */
+public class BenchmarkCompiledView implements FXMLCompiledView {
+	
+	@NotNull
+	@Override
+	public Initializable build(@NotNull URL location, @Nullable ResourceBundle resources, @NotNull Consumer<Object> register) {
+		BenchmarkController controller = new BenchmarkController();
+		register.accept(controller);
+		controller.title = new Label("Benchmark");
+		controller.root = new VBox(4, controller.title, row(new Label("Name"), field("Name")), row(new Label("Value"), field("Value")), row(new Button("OK"), new Button("Cancel")));
+		controller.initialize(location, resources);
+		return controller;
+	}
+	
+	private static HBox row(Node left, Node right) {
+		return new HBox(4, left, right);
+	}
+	
+	private static TextField field(String promptText) {
+		TextField field = new TextField();
+		field.setPromptText(promptText);
+		return field;
+	}
+	
+}
@@ -0,0 +1,24 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import javafx.fxml.FXML;
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+
+public class BenchmarkController implements FXMLController {
+	
+	@FXML
+	VBox root;
+	@FXML
+	Label title;
+	
+	public BenchmarkController() {
+		
+	}
+	
+	@Override
+	public Parent getRoot() {
+		return root;
+	}
+	
+}
@@ -0,0 +1,46 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ControllerFactoryBenchmark {
+	
+	private ControllerFactory handles;
+	private ControllerFactory registered;
+	
+	@Setup
+	public void setup() {
+		handles = new ControllerFactory(Map.of());
+		registered = new ControllerFactory(Map.of(BenchmarkController.class, BenchmarkController::new));
+	}
+	
+	/**
+	 * Measures what the controller factory did before constructors were cached
+	 */
+	@Benchmark
+	public Object reflection() throws ReflectiveOperationException {
+		return BenchmarkController.class.getConstructor().newInstance();
+	}
+	
+	@Benchmark
+	public Object cachedHandle() throws ReflectiveOperationException {
+		return handles.create(BenchmarkController.class);
+	}
+	
+	@Benchmark
+	public Object registeredFactory() throws ReflectiveOperationException {
+		return registered.create(BenchmarkController.class);
+	}
+	
+}
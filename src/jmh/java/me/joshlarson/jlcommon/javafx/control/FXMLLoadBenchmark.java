@@ -0,0 +1,48 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import javafx.fxml.Initializable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.net.URL;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FXMLLoadBenchmark {
+	
+	private FXMLManager manager;
+	private FXMLManager compiledManager;
+	private URL url;
+	
+	@Setup
+	public void setup() {
+		FXMLApplication.ensureStarted();
+		url = Objects.requireNonNull(getClass().getResource("/benchmark.fxml"), "benchmark.fxml");
+		manager = FXMLManager.builder().withLocale(Locale.US).build();
+		compiledManager = FXMLManager.builder().withLocale(Locale.US).addCompiledView(url, new BenchmarkCompiledView()).build();
+	}
+	
+	/**
+	 * Measures parsing and building an unattached scene graph, which is the same work createChild does for each
+	 * registered view during initialize
+	 */
+	@Benchmark
+	public Initializable loadFxml() {
+		return manager.loadFxml(url);
+	}
+	
+	@Benchmark
+	public Initializable loadCompiledView() {
+		return compiledManager.loadFxml(url);
+	}
+	
+}
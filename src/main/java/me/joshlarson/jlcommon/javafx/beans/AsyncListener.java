@@ -0,0 +1,189 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import me.joshlarson.jlcommon.javafx.beans.ConcurrentBase.BackpressurePolicy;
+import me.joshlarson.jlcommon.javafx.beans.ConcurrentBase.ComplexListener;
+import me.joshlarson.jlcommon.log.Log;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Queues changes in a bounded ring buffer and delivers them in order on an executor, with at most one delivery task per
+ * listener in flight. When the buffer is full, the {@link BackpressurePolicy} decides what happens to the new change.
+ */
+final class AsyncListener<T> implements ComplexListener<T, ConcurrentBase<T>>, Runnable {
+	
+	private final ComplexListener<T, ConcurrentBase<T>> listener;
+	private final Executor executor;
+	private final BackpressurePolicy policy;
+	private final Object [] prevs;
+	private final Object [] nexts;
+	
+	private ConcurrentBase<T> source;
+	private int head;
+	private int size;
+	private boolean scheduled;
+	private Thread deliveringThread;
+	private volatile long dropped;
+	
+	AsyncListener(@NotNull ComplexListener<T, ConcurrentBase<T>> listener, @NotNull Executor executor, int capacity, @NotNull BackpressurePolicy policy) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("capacity must be positive");
+		if (policy == BackpressurePolicy.BLOCK && executor == FXDispatcher.EXECUTOR)
+			throw new IllegalArgumentException("BLOCK cannot be used on the FX thread, a change made on the FX thread would wait for itself");
+		this.listener = listener;
+		this.executor = executor;
+		this.policy = policy;
+		this.prevs = new Object[capacity];
+		this.nexts = new Object[capacity];
+		this.source = null;
+		this.head = 0;
+		this.size = 0;
+		this.scheduled = false;
+		this.deliveringThread = null;
+		this.dropped = 0;
+	}
+	
+	@Override
+	public void accept(@NotNull ConcurrentBase<T> source, T prev, T next) {
+		synchronized (this) {
+			this.source = source;
+			boolean enqueue = true;
+			if (size == prevs.length) {
+				switch (policy) {
+					case BLOCK:
+						if (Thread.currentThread() == deliveringThread) {
+							// the listener changed the value itself, and only this thread could make room for it
+							nexts[(head + size - 1) % prevs.length] = next;
+							dropped++;
+							return;
+						}
+						while (size == prevs.length) {
+							try {
+								wait();
+							} catch (InterruptedException e) {
+								Thread.currentThread().interrupt();
+								dropped++;
+								return;
+							}
+						}
+						break;
+					case DROP_OLDEST:
+						prevs[head] = null;
+						nexts[head] = null;
+						head = (head + 1) % prevs.length;
+						size--;
+						dropped++;
+						break;
+					case COALESCE:
+						nexts[(head + size - 1) % prevs.length] = next;
+						dropped++;
+						enqueue = false;
+						break;
+				}
+			}
+			if (enqueue) {
+				int tail = (head + size) % prevs.length;
+				prevs[tail] = prev;
+				nexts[tail] = next;
+				size++;
+			}
+			// a delivery that failed to schedule leaves a full buffer behind, so coalescing must retry it too
+			if (scheduled)
+				return;
+			scheduled = true;
+		}
+		schedule();
+	}
+	
+	@Override
+	public void run() {
+		int count;
+		synchronized (this) {
+			count = size;
+			deliveringThread = Thread.currentThread();
+		}
+		for (int i = 0; i < count; i++) {
+			deliverNext();
+		}
+		synchronized (this) {
+			deliveringThread = null;
+			if (size == 0) {
+				scheduled = false;
+				return;
+			}
+		}
+		// Yield the executor between rounds so that a fast producer can't monopolize it
+		schedule();
+	}
+	
+	@NotNull
+	Executor getExecutor() {
+		return executor;
+	}
+	
+	long getDropped() {
+		return dropped;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void deliverNext() {
+		ConcurrentBase<T> source;
+		T prev;
+		T next;
+		synchronized (this) {
+			source = this.source;
+			prev = (T) prevs[head];
+			next = (T) nexts[head];
+			prevs[head] = null;
+			nexts[head] = null;
+			head = (head + 1) % prevs.length;
+			size--;
+			if (policy == BackpressurePolicy.BLOCK)
+				notifyAll();
+		}
+		try {
+			listener.accept(source, prev, next);
+		} catch (Throwable t) {
+			Log.e("Caught exception in asynchronous listener");
+			Log.e(t);
+		}
+	}
+	
+	private void schedule() {
+		try {
+			executor.execute(this);
+		} catch (RejectedExecutionException e) {
+			synchronized (this) {
+				scheduled = false;
+			}
+			Log.e("Failed to schedule asynchronous listener");
+			Log.e(e);
+		}
+	}
+	
+}
@@ -0,0 +1,119 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a single modification to a {@link ConcurrentCollection}. For a {@link ConcurrentList} the index is the
+ * position the removed elements were taken from and the added elements were inserted at, evaluated after all previous
+ * changes in the same notification have been applied. Unordered collections report an index of -1.
+ */
+public final class CollectionChange<T> {
+	
+	private static final CollectionChange<?> RESET = new CollectionChange<>(-1, Collections.emptyList(), Collections.emptyList(), true);
+	
+	private final int index;
+	private final List<T> added;
+	private final List<T> removed;
+	private final boolean reset;
+	
+	private CollectionChange(int index, @NotNull List<T> added, @NotNull List<T> removed, boolean reset) {
+		this.index = index;
+		this.added = Collections.unmodifiableList(added);
+		this.removed = Collections.unmodifiableList(removed);
+		this.reset = reset;
+	}
+	
+	/**
+	 * Returns the position of this change, or -1 if the collection is unordered
+	 * @return the index of the first added or removed element
+	 */
+	public int getIndex() {
+		return index;
+	}
+	
+	@NotNull
+	public List<T> getAdded() {
+		return added;
+	}
+	
+	@NotNull
+	public List<T> getRemoved() {
+		return removed;
+	}
+	
+	public boolean wasAdded() {
+		return !added.isEmpty();
+	}
+	
+	public boolean wasRemoved() {
+		return !removed.isEmpty();
+	}
+	
+	public boolean wasReplaced() {
+		return wasAdded() && wasRemoved();
+	}
+	
+	/**
+	 * Returns true if the collection changed in a way that isn't described by this event, and must be rescanned
+	 * @return TRUE if the listener should rescan the collection, FALSE otherwise
+	 */
+	public boolean isReset() {
+		return reset;
+	}
+	
+	@Override
+	@NotNull
+	public String toString() {
+		if (reset)
+			return "CollectionChange[reset]";
+		return "CollectionChange[index=" + index + " added=" + added + " removed=" + removed + "]";
+	}
+	
+	@NotNull
+	public static <T> CollectionChange<T> added(int index, @NotNull List<T> added) {
+		return new CollectionChange<>(index, added, Collections.emptyList(), false);
+	}
+	
+	@NotNull
+	public static <T> CollectionChange<T> removed(int index, @NotNull List<T> removed) {
+		return new CollectionChange<>(index, Collections.emptyList(), removed, false);
+	}
+	
+	@NotNull
+	public static <T> CollectionChange<T> replaced(int index, @NotNull List<T> removed, @NotNull List<T> added) {
+		return new CollectionChange<>(index, added, removed, false);
+	}
+	
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public static <T> CollectionChange<T> reset() {
+		return (CollectionChange<T>) RESET;
+	}
+	
+}
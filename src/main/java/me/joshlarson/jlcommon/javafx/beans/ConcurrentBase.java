@@ -30,15 +30,14 @@ import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class ConcurrentBase<T> implements Property<T> {
 	
-	private final Map<Object, ComplexListener<T, ConcurrentBase<T>>> listeners;
+	private final ListenerRegistry<ComplexListener<T, ConcurrentBase<T>>> listeners;
 	
 	private final Object mutex;
 	private final boolean prohibitNull;
@@ -58,7 +57,7 @@ public class ConcurrentBase<T> implements Property<T> {
 	protected ConcurrentBase(boolean prohibitNull, T value) {
 		this.mutex = new Object();
 		this.prohibitNull = prohibitNull;
-		this.listeners = new HashMap<>();
+		this.listeners = new ListenerRegistry<>();
 		
 		if (prohibitNull)
 			Objects.requireNonNull(value, "Value cannot be set to null!");
@@ -84,7 +83,7 @@ public class ConcurrentBase<T> implements Property<T> {
 	
 	@Override
 	public boolean isBound() {
-		return value != null || !prohibitNull;
+		return internalGet() != null || !prohibitNull;
 	}
 	
 	@Override
@@ -99,7 +98,7 @@ public class ConcurrentBase<T> implements Property<T> {
 	
 	@Override
 	public Object getBean() {
-		return value;
+		return internalGet();
 	}
 	
 	@Override
@@ -162,38 +161,103 @@ public class ConcurrentBase<T> implements Property<T> {
 	}
 	
 	public void addSimpleListener(@NotNull Object key, @NotNull ComplexListener<T, ConcurrentBase<T>> listener) {
-		synchronized (listeners) {
-			this.listeners.put(key, listener);
-		}
+		listeners.put(key, listener);
 	}
 	
 	public <S> void addTransformListener(@NotNull Object key, @NotNull Function<T, S> transformer, @NotNull ComplexListener<S, ConcurrentBase<T>> listener) {
-		synchronized (listeners) {
-			this.listeners.put(key, (obs, prev, next) -> listener.accept(obs, transformer.apply(prev), transformer.apply(next)));
+		listeners.put(key, (obs, prev, next) -> listener.accept(obs, transformer.apply(prev), transformer.apply(next)));
+	}
+	
+	public void addFxListener(@NotNull Consumer<T> listener) {
+		addFxListener(listener, listener);
+	}
+	
+	public void addFxListener(@NotNull Object key, @NotNull Consumer<T> listener) {
+		addFxListener(key, (obs, prev, next) -> listener.accept(next));
+	}
+	
+	public void addFxListener(@NotNull ComplexListener<T, ConcurrentBase<T>> listener) {
+		addFxListener(listener, listener);
+	}
+	
+	/**
+	 * Adds a listener that is invoked on the FX thread. Changes are coalesced so that the listener runs at most once per
+	 * pulse, receiving the prev value of the first pending change and the latest value
+	 * @param key the key used to remove this listener
+	 * @param listener the listener to invoke on the FX thread
+	 */
+	public void addFxListener(@NotNull Object key, @NotNull ComplexListener<T, ConcurrentBase<T>> listener) {
+		listeners.put(key, new AsyncListener<>(listener, FXDispatcher.EXECUTOR, 1, BackpressurePolicy.COALESCE));
+	}
+	
+	public void addAsyncListener(@NotNull Executor executor, int capacity, @NotNull BackpressurePolicy policy, @NotNull Consumer<T> listener) {
+		addAsyncListener(listener, executor, capacity, policy, listener);
+	}
+	
+	public void addAsyncListener(@NotNull Object key, @NotNull Executor executor, int capacity, @NotNull BackpressurePolicy policy, @NotNull Consumer<T> listener) {
+		addAsyncListener(key, executor, capacity, policy, (obs, prev, next) -> listener.accept(next));
+	}
+	
+	/**
+	 * Adds a listener that is invoked on the specified executor instead of the thread that changed the value. Changes
+	 * are delivered in order, and at most capacity changes may be waiting at once before the policy is applied
+	 * @param key the key used to remove this listener
+	 * @param executor the executor to deliver changes on
+	 * @param capacity the maximum number of undelivered changes
+	 * @param policy what to do with a change when capacity changes are already waiting
+	 * @param listener the listener to invoke
+	 * @see BackpressurePolicy#BLOCK for the restrictions on blocking listeners
+	 */
+	public void addAsyncListener(@NotNull Object key, @NotNull Executor executor, int capacity, @NotNull BackpressurePolicy policy, @NotNull ComplexListener<T, ConcurrentBase<T>> listener) {
+		listeners.put(key, new AsyncListener<>(listener, executor, capacity, policy));
+	}
+	
+	/**
+	 * Returns the number of intermediate values that were never delivered to FX listeners because a newer value
+	 * replaced them before the FX thread ran
+	 * @return the number of coalesced values, summed across all FX listeners currently registered
+	 */
+	public long getDroppedFxUpdates() {
+		long dropped = 0;
+		for (ListenerRegistry.Entry<ComplexListener<T, ConcurrentBase<T>>> entry : listeners.getEntries()) {
+			ComplexListener<T, ConcurrentBase<T>> listener = entry.getListener();
+			if (listener instanceof AsyncListener && ((AsyncListener<T>) listener).getExecutor() == FXDispatcher.EXECUTOR)
+				dropped += ((AsyncListener<T>) listener).getDropped();
+		}
+		return dropped;
+	}
+	
+	/**
+	 * Returns the number of changes that asynchronous listeners, including FX listeners, dropped or coalesced
+	 * because their queue was full
+	 * @return the number of undelivered changes, summed across all asynchronous listeners currently registered
+	 */
+	public long getDroppedAsyncUpdates() {
+		long dropped = 0;
+		for (ListenerRegistry.Entry<ComplexListener<T, ConcurrentBase<T>>> entry : listeners.getEntries()) {
+			if (entry.getListener() instanceof AsyncListener)
+				dropped += ((AsyncListener<T>) entry.getListener()).getDropped();
 		}
+		return dropped;
 	}
 	
 	public boolean removeListener(@NotNull Object key) {
-		synchronized (listeners) {
-			return listeners.remove(key) != null;
-		}
+		return listeners.remove(key);
 	}
 	
 	public void clearListeners() {
-		synchronized (listeners) {
-			listeners.clear();
-		}
+		listeners.clear();
 	}
 	
 	public void callListeners() {
-		T value = this.value;
+		T value = internalGet();
 		callListeners(value, value);
 	}
 	
 	@Override
 	@NotNull
 	public String toString() {
-		T value = this.value;
+		T value = internalGet();
 		return value == null ? "null" : value.toString();
 	}
 	
@@ -201,8 +265,8 @@ public class ConcurrentBase<T> implements Property<T> {
 	public boolean equals(Object o) {
 		if (!(o instanceof ConcurrentBase))
 			return false;
-		Object myValue = this.value;
-		Object theirValue = ((ConcurrentBase) o).value;
+		Object myValue = internalGet();
+		Object theirValue = ((ConcurrentBase) o).internalGet();
 		return myValue == theirValue || (myValue != null && myValue.equals(theirValue));
 	}
 	
@@ -223,13 +287,19 @@ public class ConcurrentBase<T> implements Property<T> {
 	}
 	
 	protected void callListeners(T prev, T next) {
-		synchronized (listeners) {
-			for (ComplexListener<T, ConcurrentBase<T>> listener : listeners.values()) {
-				listener.accept(this, prev, next);
-			}
+		for (ListenerRegistry.Entry<ComplexListener<T, ConcurrentBase<T>>> entry : listeners.getEntries()) {
+			entry.getListener().accept(this, prev, next);
 		}
 	}
 	
+	protected boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+	
+	ComplexListener<T, ConcurrentBase<T>> getListener(@NotNull Object key) {
+		return listeners.get(key);
+	}
+	
 	protected Object getMutex() {
 		return mutex;
 	}
@@ -238,4 +308,21 @@ public class ConcurrentBase<T> implements Property<T> {
 		void accept(@NotNull U concurrentObject, S prev, S next);
 	}
 	
+	/**
+	 * Determines what an asynchronous listener does with a new change when its queue is full
+	 */
+	public enum BackpressurePolicy {
+		/**
+		 * Block the thread changing the value until the listener catches up. The thread waits while it holds the lock of
+		 * the value, so the listener must not change the value from another thread, and the executor must not run on the
+		 * thread that changes the value, such as the FX thread. A change the listener makes on its own delivery thread is
+		 * coalesced instead of blocking
+		 */
+		BLOCK,
+		/** Discard the oldest undelivered change */
+		DROP_OLDEST,
+		/** Replace the next value of the newest undelivered change, so the listener skips straight to the latest value */
+		COALESCE
+	}
+	
 }
@@ -32,11 +32,18 @@ import java.util.stream.Stream;
 
 public class ConcurrentCollection<S extends Collection<T>, T> extends ConcurrentBase<S> implements Collection<T> {
 	
-	private final Map<Object, ComplexCollectionChangedListener<ConcurrentCollection<S, T>>> listeners;
+	private final ListenerRegistry<ComplexCollectionDeltaListener<ConcurrentCollection<S, T>, T>> listeners;
+	
+	private volatile int updateDepth;
+	private PendingChanges<T> pendingChanges;
+	private volatile List<T> snapshot;
 	
 	public ConcurrentCollection(S value) {
 		super(true, value);
-		this.listeners = new HashMap<>();
+		this.listeners = new ListenerRegistry<>();
+		this.updateDepth = 0;
+		this.pendingChanges = null;
+		this.snapshot = null;
 	}
 	
 	@Override
@@ -59,40 +66,45 @@ public class ConcurrentCollection<S extends Collection<T>, T> extends Concurrent
 		return internalGet().contains(o);
 	}
 	
+	/**
+	 * Returns an iterator over a {@link #snapshot()} of this collection. Removing through the iterator removes the element
+	 * from this collection and notifies listeners
+	 */
 	@NotNull
 	@Override
 	public Iterator<T> iterator() {
-		return internalGet().iterator();
+		return new WriteThroughIterator();
 	}
 	
 	@NotNull
 	@Override
 	public Object[] toArray() {
-		return internalGet().toArray();
+		return snapshot().toArray();
 	}
 	
 	@NotNull
 	@Override
 	public <T1> T1[] toArray(@NotNull T1[] a) {
-		return internalGet().toArray(a);
+		return snapshot().toArray(a);
 	}
 	
 	@Override
 	public boolean add(T t) {
 		synchronized (getMutex()) {
-			boolean ret = internalGet().add(t);
-			if (ret)
-				callCollectionChangedListeners();
+			boolean ret = internalGetMutable().add(t);
+			if (ret && hasCollectionChangedListeners())
+				callCollectionChangedListeners(CollectionChange.added(-1, Collections.singletonList(t)));
 			return ret;
 		}
 	}
 	
 	@Override
+	@SuppressWarnings("unchecked")
 	public boolean remove(Object o) {
 		synchronized (getMutex()) {
-			boolean ret = internalGet().remove(o);
-			if (ret)
-				callCollectionChangedListeners();
+			boolean ret = internalGetMutable().remove(o);
+			if (ret && hasCollectionChangedListeners())
+				callCollectionChangedListeners(CollectionChange.removed(-1, Collections.singletonList((T) o)));
 			return ret;
 		}
 	}
@@ -105,29 +117,44 @@ public class ConcurrentCollection<S extends Collection<T>, T> extends Concurrent
 	@Override
 	public boolean addAll(@NotNull Collection<? extends T> c) {
 		synchronized (getMutex()) {
-			boolean ret = internalGet().addAll(c);
-			if (ret)
-				callCollectionChangedListeners();
-			return ret;
+			if (!hasCollectionChangedListeners())
+				return internalGetMutable().addAll(c);
+			S collection = internalGetMutable();
+			List<T> added = new ArrayList<>(c.size());
+			for (T t : c) {
+				if (collection.add(t))
+					added.add(t);
+			}
+			if (added.isEmpty())
+				return false;
+			callCollectionChangedListeners(CollectionChange.added(-1, added));
+			return true;
 		}
 	}
 	
 	@Override
 	public boolean removeAll(@NotNull Collection<?> c) {
 		synchronized (getMutex()) {
-			boolean ret = internalGet().removeAll(c);
-			if (ret)
-				callCollectionChangedListeners();
-			return ret;
+			if (!hasCollectionChangedListeners())
+				return internalGetMutable().removeAll(c);
+			return removeIf(c::contains);
 		}
 	}
 	
 	@Override
 	public boolean removeIf(Predicate<? super T> filter) {
 		synchronized (getMutex()) {
-			boolean ret = internalGet().removeIf(filter);
+			if (!hasCollectionChangedListeners())
+				return internalGetMutable().removeIf(filter);
+			List<T> removed = new ArrayList<>();
+			boolean ret = internalGetMutable().removeIf(t -> {
+				if (!filter.test(t))
+					return false;
+				removed.add(t);
+				return true;
+			});
 			if (ret)
-				callCollectionChangedListeners();
+				callCollectionChangedListeners(CollectionChange.removed(-1, removed));
 			return ret;
 		}
 	}
@@ -135,18 +162,22 @@ public class ConcurrentCollection<S extends Collection<T>, T> extends Concurrent
 	@Override
 	public boolean retainAll(@NotNull Collection<?> c) {
 		synchronized (getMutex()) {
-			boolean ret = internalGet().retainAll(c);
-			if (ret)
-				callCollectionChangedListeners();
-			return ret;
+			if (!hasCollectionChangedListeners())
+				return internalGetMutable().retainAll(c);
+			return removeIf(t -> !c.contains(t));
 		}
 	}
 	
 	@Override
 	public void clear() {
 		synchronized (getMutex()) {
-			internalGet().clear();
-			callCollectionChangedListeners();
+			S collection = internalGetMutable();
+			if (collection.isEmpty())
+				return;
+			List<T> removed = hasCollectionChangedListeners() ? new ArrayList<>(collection) : null;
+			collection.clear();
+			if (removed != null)
+				callCollectionChangedListeners(CollectionChange.removed(isIndexed() ? 0 : -1, removed));
 		}
 	}
 	
@@ -162,22 +193,84 @@ public class ConcurrentCollection<S extends Collection<T>, T> extends Concurrent
 	
 	@Override
 	public Spliterator<T> spliterator() {
-		return internalGet().spliterator();
+		return snapshot().spliterator();
 	}
 	
 	@Override
 	public Stream<T> stream() {
-		return internalGet().stream();
+		return snapshot().stream();
 	}
 	
 	@Override
 	public Stream<T> parallelStream() {
-		return internalGet().parallelStream();
+		return snapshot().parallelStream();
 	}
 	
 	@Override
 	public void forEach(Consumer<? super T> action) {
-		internalGet().forEach(action);
+		snapshot().forEach(action);
+	}
+	
+	/**
+	 * Returns an immutable copy of this collection. The copy is shared by every reader until the next modification, so
+	 * repeated iteration of an unchanged collection does not copy it again
+	 * @return the current contents of this collection, in iteration order
+	 */
+	@NotNull
+	public List<T> snapshot() {
+		List<T> snapshot = this.snapshot;
+		if (snapshot != null)
+			return snapshot;
+		synchronized (getMutex()) {
+			snapshot = this.snapshot;
+			if (snapshot == null) {
+				snapshot = Collections.unmodifiableList(new ArrayList<>(internalGet()));
+				this.snapshot = snapshot;
+			}
+			return snapshot;
+		}
+	}
+	
+	/**
+	 * Runs the specified updates while holding the mutex, and notifies listeners once with every change made
+	 * @param updates the modifications to apply to this collection
+	 */
+	public void batch(@NotNull Runnable updates) {
+		synchronized (getMutex()) {
+			beginUpdate();
+			try {
+				updates.run();
+			} finally {
+				endUpdate();
+			}
+		}
+	}
+	
+	/**
+	 * Defers change notifications until the matching {@link #endUpdate()}. Calls may be nested
+	 */
+	public void beginUpdate() {
+		synchronized (getMutex()) {
+			if (updateDepth++ == 0)
+				pendingChanges = new PendingChanges<>();
+		}
+	}
+	
+	/**
+	 * Ends an update started by {@link #beginUpdate()}. When the outermost update ends, listeners are notified once with
+	 * all of the accumulated changes
+	 */
+	public void endUpdate() {
+		synchronized (getMutex()) {
+			if (updateDepth == 0)
+				throw new IllegalStateException("endUpdate called without a matching beginUpdate");
+			if (--updateDepth > 0)
+				return;
+			List<CollectionChange<T>> changes = pendingChanges.getChanges();
+			pendingChanges = null;
+			if (!changes.isEmpty())
+				fireCollectionChangedListeners(changes);
+		}
 	}
 	
 	public void addCollectionChangedListener(@NotNull Runnable listener) {
@@ -193,33 +286,181 @@ public class ConcurrentCollection<S extends Collection<T>, T> extends Concurrent
 	}
 	
 	public void addCollectionChangedListener(@NotNull Object key, @NotNull ComplexCollectionChangedListener<ConcurrentCollection<S, T>> listener) {
-		synchronized (listeners) {
-			this.listeners.put(key, listener);
-		}
+		listeners.put(key, (obs, changes) -> listener.accept(obs));
+	}
+	
+	public void addCollectionChangedListener(@NotNull ComplexCollectionDeltaListener<ConcurrentCollection<S, T>, T> listener) {
+		addCollectionChangedListener(listener, listener);
+	}
+	
+	public void addCollectionChangedListener(@NotNull Object key, @NotNull ComplexCollectionDeltaListener<ConcurrentCollection<S, T>, T> listener) {
+		listeners.put(key, listener);
 	}
 	
 	public boolean removeCollectionChangedListener(@NotNull Object key) {
-		synchronized (listeners) {
-			return listeners.remove(key) != null;
-		}
+		return listeners.remove(key);
 	}
 	
 	public void clearCollectionChangedListeners() {
-		synchronized (listeners) {
-			listeners.clear();
-		}
+		listeners.clear();
 	}
 	
+	/**
+	 * Notifies listeners that the collection changed in an unspecified way, requiring a rescan
+	 */
 	protected void callCollectionChangedListeners() {
-		synchronized (listeners) {
-			for (ComplexCollectionChangedListener<ConcurrentCollection<S, T>> listener : listeners.values()) {
-				listener.accept(this);
+		snapshot = null;
+		callCollectionChangedListeners(CollectionChange.reset());
+	}
+	
+	protected void callCollectionChangedListeners(@NotNull CollectionChange<T> change) {
+		callCollectionChangedListeners(Collections.singletonList(change));
+	}
+	
+	protected void callCollectionChangedListeners(@NotNull List<CollectionChange<T>> changes) {
+		if (updateDepth > 0) {
+			synchronized (getMutex()) {
+				if (updateDepth > 0) {
+					pendingChanges.add(changes);
+					return;
+				}
 			}
 		}
+		fireCollectionChangedListeners(changes);
+	}
+	
+	/**
+	 * Returns the backing collection for modification, discarding the current snapshot. Must be called while holding the
+	 * mutex
+	 * @return the backing collection
+	 */
+	protected S internalGetMutable() {
+		snapshot = null;
+		return internalGet();
+	}
+	
+	protected boolean hasCollectionChangedListeners() {
+		return !listeners.isEmpty();
+	}
+	
+	/**
+	 * Returns whether elements of this collection have a stable position that is reported in each {@link CollectionChange}
+	 * @return TRUE if change events carry indices, FALSE if they report -1
+	 */
+	protected boolean isIndexed() {
+		return false;
+	}
+	
+	private void fireCollectionChangedListeners(@NotNull List<CollectionChange<T>> changes) {
+		for (ListenerRegistry.Entry<ComplexCollectionDeltaListener<ConcurrentCollection<S, T>, T>> entry : listeners.getEntries()) {
+			entry.getListener().accept(this, changes);
+		}
+	}
+	
+	/**
+	 * Iterates over the snapshot taken when iteration began, removing elements through this collection
+	 */
+	private final class WriteThroughIterator implements Iterator<T> {
+		
+		private final Iterator<T> elements;
+		private T lastReturned;
+		private boolean removable;
+		
+		WriteThroughIterator() {
+			this.elements = snapshot().iterator();
+			this.lastReturned = null;
+			this.removable = false;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return elements.hasNext();
+		}
+		
+		@Override
+		public T next() {
+			lastReturned = elements.next();
+			removable = true;
+			return lastReturned;
+		}
+		
+		@Override
+		public void remove() {
+			if (!removable)
+				throw new IllegalStateException();
+			removable = false;
+			ConcurrentCollection.this.remove(lastReturned);
+		}
+		
+	}
+	
+	/**
+	 * Accumulates the changes made during an update. Consecutive additions that extend one another (appends to a list,
+	 * or any additions to an unordered collection) are merged into a single change, and a reset supersedes everything
+	 */
+	private static final class PendingChanges<T> {
+		
+		private final List<CollectionChange<T>> changes;
+		private List<T> added;
+		private int addedIndex;
+		private boolean reset;
+		
+		PendingChanges() {
+			this.changes = new ArrayList<>();
+			this.added = null;
+			this.addedIndex = -1;
+			this.reset = false;
+		}
+		
+		void add(List<CollectionChange<T>> changes) {
+			for (CollectionChange<T> change : changes)
+				add(change);
+		}
+		
+		List<CollectionChange<T>> getChanges() {
+			if (reset)
+				return Collections.singletonList(CollectionChange.reset());
+			finishAdded();
+			return changes;
+		}
+		
+		private void add(CollectionChange<T> change) {
+			if (reset)
+				return;
+			if (change.isReset()) {
+				reset = true;
+				return;
+			}
+			if (change.wasAdded() && !change.wasRemoved()) {
+				int index = change.getIndex();
+				if (added != null && (index == -1 ? addedIndex == -1 : index == addedIndex + added.size())) {
+					added.addAll(change.getAdded());
+					return;
+				}
+				finishAdded();
+				added = new ArrayList<>(change.getAdded());
+				addedIndex = index;
+				return;
+			}
+			finishAdded();
+			changes.add(change);
+		}
+		
+		private void finishAdded() {
+			if (added != null) {
+				changes.add(CollectionChange.added(addedIndex, added));
+				added = null;
+			}
+		}
+		
 	}
 	
 	public interface ComplexCollectionChangedListener<S> extends Consumer<S> {
 		
 	}
 	
+	public interface ComplexCollectionDeltaListener<S, T> {
+		void accept(@NotNull S collection, @NotNull List<CollectionChange<T>> changes);
+	}
+	
 }
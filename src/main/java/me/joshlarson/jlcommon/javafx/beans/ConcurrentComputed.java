@@ -0,0 +1,214 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import javafx.beans.value.ObservableValue;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * A read-only value derived from other concurrent values. A change to a source only marks the value and everything
+ * computed from it as dirty; it is recomputed the next time it is read, and cached until a source changes again. Only
+ * values with listeners are recomputed as soon as a source changes, and their listeners are only called if the
+ * recomputed value is different.
+ * <p>
+ * The sources are always read without holding the lock of any computed value. Listeners of a computed value are called
+ * on the thread that changed the source, like any other listener of that source.
+ */
+public class ConcurrentComputed<T> extends ConcurrentBase<T> {
+	
+	private static final Object DEPENDENTS_KEY = new Object();
+	
+	private final Supplier<T> computation;
+	private final List<ConcurrentBase<?>> sources;
+	private final List<ConcurrentComputed<?>> dependents;
+	private volatile boolean dirty;
+	private long version;
+	
+	/**
+	 * Creates a value computed from the specified sources. The value is computed once right away, so that listeners
+	 * are only told about later changes
+	 * @param computation computes the value, reading only the sources
+	 * @param sources the values the computation depends on
+	 */
+	public ConcurrentComputed(@NotNull Supplier<T> computation, @NotNull ConcurrentBase<?> ... sources) {
+		this.computation = Objects.requireNonNull(computation, "computation");
+		this.sources = List.of(sources);
+		this.dependents = new CopyOnWriteArrayList<>();
+		this.dirty = true;
+		this.version = 0;
+		for (ConcurrentBase<?> source : this.sources)
+			observe(source);
+		internalGet();
+	}
+	
+	public T get() {
+		return internalGet();
+	}
+	
+	/**
+	 * Returns whether the value has to be recomputed before it is next read
+	 * @return TRUE if a source changed since the value was last computed, FALSE otherwise
+	 */
+	public boolean isDirty() {
+		return dirty;
+	}
+	
+	/**
+	 * Marks this value and every value computed from it as dirty, then recomputes the ones with listeners. Called when
+	 * a source changes, or for computations that also depend on something other than the sources
+	 */
+	public void invalidate() {
+		invalidate(List.of(this));
+	}
+	
+	/**
+	 * Stops following the sources. The value is no longer updated once this is called
+	 */
+	public void dispose() {
+		for (ConcurrentBase<?> source : sources) {
+			if (source instanceof ConcurrentComputed)
+				((ConcurrentComputed<?>) source).dependents.remove(this);
+			else
+				unobserve(source);
+		}
+	}
+	
+	@Override
+	public void bind(ObservableValue<? extends T> observable) {
+		throw new UnsupportedOperationException("computed values cannot be bound");
+	}
+	
+	@Override
+	protected T internalGet() {
+		if (!dirty)
+			return super.internalGet();
+		long version;
+		synchronized (getMutex()) {
+			if (!dirty)
+				return super.internalGet();
+			version = this.version;
+		}
+		T value = computation.get();
+		synchronized (getMutex()) {
+			// a source changed during the computation, so the value stays dirty and the next read computes it again
+			if (this.version == version) {
+				dirty = false;
+				super.internalSet(value);
+			}
+		}
+		return value;
+	}
+	
+	@Override
+	protected T internalSet(T value) {
+		throw new UnsupportedOperationException("computed values cannot be set");
+	}
+	
+	/**
+	 * Marks this value and its dependents dirty, visiting each value once even if it is reachable through several paths
+	 */
+	private void markDirty(Set<ConcurrentComputed<?>> visited, List<ConcurrentComputed<?>> eager) {
+		if (!visited.add(this))
+			return;
+		synchronized (getMutex()) {
+			version++;
+			dirty = true;
+		}
+		if (hasListeners())
+			eager.add(this);
+		for (ConcurrentComputed<?> dependent : dependents)
+			dependent.markDirty(visited, eager);
+	}
+	
+	private <S> void observe(ConcurrentBase<S> source) {
+		if (source instanceof ConcurrentComputed) {
+			((ConcurrentComputed<?>) source).dependents.add(this);
+			return;
+		}
+		synchronized (source.getMutex()) {
+			ConcurrentBase.ComplexListener<S, ConcurrentBase<S>> listener = source.getListener(DEPENDENTS_KEY);
+			SourceDependents<S> sourceDependents;
+			if (listener instanceof SourceDependents) {
+				sourceDependents = (SourceDependents<S>) listener;
+			} else {
+				sourceDependents = new SourceDependents<>();
+				source.addSimpleListener(DEPENDENTS_KEY, sourceDependents);
+			}
+			sourceDependents.computed.add(this);
+		}
+	}
+	
+	private <S> void unobserve(ConcurrentBase<S> source) {
+		synchronized (source.getMutex()) {
+			ConcurrentBase.ComplexListener<S, ConcurrentBase<S>> listener = source.getListener(DEPENDENTS_KEY);
+			if (!(listener instanceof SourceDependents))
+				return;
+			List<ConcurrentComputed<?>> computed = ((SourceDependents<S>) listener).computed;
+			computed.remove(this);
+			if (computed.isEmpty())
+				source.removeListener(DEPENDENTS_KEY);
+		}
+	}
+	
+	/**
+	 * Marks every value computed from a changed source as dirty before recomputing any of them, so that a value reached
+	 * through several paths is never recomputed from a mix of old and new inputs
+	 */
+	private static void invalidate(List<ConcurrentComputed<?>> roots) {
+		Set<ConcurrentComputed<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<ConcurrentComputed<?>> eager = new ArrayList<>();
+		for (ConcurrentComputed<?> root : roots)
+			root.markDirty(visited, eager);
+		for (ConcurrentComputed<?> computed : eager)
+			computed.internalGet();
+	}
+	
+	/**
+	 * The single listener on a source that is not computed, shared by every value computed from it
+	 */
+	private static final class SourceDependents<S> implements ConcurrentBase.ComplexListener<S, ConcurrentBase<S>> {
+		
+		private final List<ConcurrentComputed<?>> computed;
+		
+		SourceDependents() {
+			this.computed = new CopyOnWriteArrayList<>();
+		}
+		
+		@Override
+		public void accept(@NotNull ConcurrentBase<S> source, S prev, S next) {
+			invalidate(computed);
+		}
+		
+	}
+	
+}
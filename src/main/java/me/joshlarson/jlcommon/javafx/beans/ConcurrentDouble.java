@@ -25,53 +25,123 @@ package me.joshlarson.jlcommon.javafx.beans;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
 import java.util.function.DoubleUnaryOperator;
 
+/**
+ * Double property backed by the raw bits of a primitive field. Updates are lock-free and allocation-free while no
+ * listeners are registered; boxing and the mutex are only used when a listener or binding needs to be notified.
+ */
 public class ConcurrentDouble extends ConcurrentBase<Double> {
 	
+	private static final VarHandle BITS;
+	
+	static {
+		try {
+			BITS = MethodHandles.lookup().findVarHandle(ConcurrentDouble.class, "bits", long.class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	private volatile long bits;
+	
 	public ConcurrentDouble() {
-		super(true, 0d);
+		this(0d);
 	}
 	
 	public ConcurrentDouble(@NotNull Double value) {
-		super(true, value);
+		this((double) value);
 	}
 	
 	public ConcurrentDouble(double value) {
-		super(true, value);
+		super(false, null); // storage is provided by this class
+		this.bits = Double.doubleToRawLongBits(value);
 	}
 	
 	@Override
 	@NotNull
 	public Double getValue() {
-		return super.internalGet();
+		return get();
 	}
 	
 	@Override
 	public void setValue(@NotNull Double value) {
-		super.internalSet(value);
+		internalSet(value);
 	}
 	
 	public double get() {
-		return internalGet();
+		return Double.longBitsToDouble(bits);
 	}
 	
 	public double set(double value) {
-		return super.internalSet(value);
+		long nextBits = Double.doubleToRawLongBits(value);
+		if (!hasListeners())
+			return Double.longBitsToDouble((long) BITS.getAndSet(this, nextBits));
+		synchronized (getMutex()) {
+			double prev = Double.longBitsToDouble((long) BITS.getAndSet(this, nextBits));
+			notifyChanged(prev, value);
+			return prev;
+		}
 	}
 	
 	public double updateAndGet(@NotNull DoubleUnaryOperator op) {
+		long prevBits;
+		double next;
+		if (!hasListeners()) {
+			do {
+				prevBits = bits;
+				next = op.applyAsDouble(Double.longBitsToDouble(prevBits));
+			} while (!BITS.compareAndSet(this, prevBits, Double.doubleToRawLongBits(next)));
+			return next;
+		}
 		synchronized (getMutex()) {
-			double newValue = op.applyAsDouble(internalGet());
-			internalSet(newValue);
-			return newValue;
+			do {
+				prevBits = bits;
+				next = op.applyAsDouble(Double.longBitsToDouble(prevBits));
+			} while (!BITS.compareAndSet(this, prevBits, Double.doubleToRawLongBits(next)));
+			notifyChanged(Double.longBitsToDouble(prevBits), next);
+			return next;
 		}
 	}
 	
 	public double getAndUpdate(@NotNull DoubleUnaryOperator op) {
+		long prevBits;
+		double next;
+		if (!hasListeners()) {
+			do {
+				prevBits = bits;
+				next = op.applyAsDouble(Double.longBitsToDouble(prevBits));
+			} while (!BITS.compareAndSet(this, prevBits, Double.doubleToRawLongBits(next)));
+			return Double.longBitsToDouble(prevBits);
+		}
 		synchronized (getMutex()) {
-			return internalSet(op.applyAsDouble(internalGet()));
+			do {
+				prevBits = bits;
+				next = op.applyAsDouble(Double.longBitsToDouble(prevBits));
+			} while (!BITS.compareAndSet(this, prevBits, Double.doubleToRawLongBits(next)));
+			double prev = Double.longBitsToDouble(prevBits);
+			notifyChanged(prev, next);
+			return prev;
 		}
 	}
 	
+	@Override
+	protected Double internalGet() {
+		return get();
+	}
+	
+	@Override
+	protected Double internalSet(Double value) {
+		return set(Objects.requireNonNull(value, "Value cannot be set to null!"));
+	}
+	
+	private void notifyChanged(double prev, double next) {
+		// Same comparison as Double.equals, so listeners see exactly the changes they did before
+		if (Double.doubleToLongBits(prev) != Double.doubleToLongBits(next))
+			callListeners(prev, next);
+	}
+	
 }
@@ -25,26 +25,46 @@ package me.joshlarson.jlcommon.javafx.beans;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
 import java.util.function.IntUnaryOperator;
 
+/**
+ * Integer property backed by a primitive field. Updates are lock-free and allocation-free while no listeners are
+ * registered; boxing and the mutex are only used when a listener or binding needs to be notified.
+ */
 public class ConcurrentInteger extends ConcurrentBase<Integer> {
 	
+	private static final VarHandle VALUE;
+	
+	static {
+		try {
+			VALUE = MethodHandles.lookup().findVarHandle(ConcurrentInteger.class, "value", int.class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	private volatile int value;
+	
 	public ConcurrentInteger() {
-		super(true, 0);
+		this(0);
 	}
 	
 	public ConcurrentInteger(@NotNull Integer value) {
-		super(true, value);
+		this((int) value);
 	}
 	
 	public ConcurrentInteger(int value) {
-		super(true, value);
+		super(false, null); // storage is provided by this class
+		this.value = value;
 	}
 	
 	@Override
 	@NotNull
 	public Integer getValue() {
-		return internalGet();
+		return value;
 	}
 	
 	@Override
@@ -53,11 +73,17 @@ public class ConcurrentInteger extends ConcurrentBase<Integer> {
 	}
 	
 	public int get() {
-		return internalGet();
+		return value;
 	}
 	
 	public int set(int value) {
-		return internalSet(value);
+		if (!hasListeners())
+			return (int) VALUE.getAndSet(this, value);
+		synchronized (getMutex()) {
+			int prev = (int) VALUE.getAndSet(this, value);
+			notifyChanged(prev, value);
+			return prev;
+		}
 	}
 	
 	public int incrementAndGet() {
@@ -69,53 +95,91 @@ public class ConcurrentInteger extends ConcurrentBase<Integer> {
 	}
 	
 	public int updateAndGet(@NotNull IntUnaryOperator op) {
+		int prev;
+		int next;
+		if (!hasListeners()) {
+			do {
+				prev = value;
+				next = op.applyAsInt(prev);
+			} while (!VALUE.compareAndSet(this, prev, next));
+			return next;
+		}
 		synchronized (getMutex()) {
-			int newValue = op.applyAsInt(internalGet());
-			internalSet(newValue);
-			return newValue;
+			do {
+				prev = value;
+				next = op.applyAsInt(prev);
+			} while (!VALUE.compareAndSet(this, prev, next));
+			notifyChanged(prev, next);
+			return next;
 		}
 	}
 	
 	public boolean compareAndSet(int expected, int newValue) {
+		if (!hasListeners())
+			return VALUE.compareAndSet(this, expected, newValue);
 		synchronized (getMutex()) {
-			if (internalGet() != expected)
+			if (!VALUE.compareAndSet(this, expected, newValue))
 				return false;
-			int prev = internalSet(newValue);
-			assert prev == expected : "Concurrent modification";
+			notifyChanged(expected, newValue);
 			return true;
 		}
 	}
 	
 	public int getAndIncrement() {
-		synchronized (getMutex()) {
-			return internalSet(internalGet() + 1);
-		}
+		return getAndAdd(1);
 	}
 	
 	public int getAndDecrement() {
-		synchronized (getMutex()) {
-			return internalSet(internalGet() - 1);
-		}
+		return getAndAdd(-1);
 	}
 	
 	public int getAndUpdate(@NotNull IntUnaryOperator op) {
+		int prev;
+		int next;
+		if (!hasListeners()) {
+			do {
+				prev = value;
+				next = op.applyAsInt(prev);
+			} while (!VALUE.compareAndSet(this, prev, next));
+			return prev;
+		}
 		synchronized (getMutex()) {
-			return internalSet(op.applyAsInt(internalGet()));
+			do {
+				prev = value;
+				next = op.applyAsInt(prev);
+			} while (!VALUE.compareAndSet(this, prev, next));
+			notifyChanged(prev, next);
+			return prev;
 		}
 	}
 	
 	public int addAndGet(int delta) {
-		synchronized (getMutex()) {
-			int newValue = internalGet() + delta;
-			internalSet(newValue);
-			return newValue;
-		}
+		return getAndAdd(delta) + delta;
 	}
 	
 	public int getAndAdd(int delta) {
+		if (!hasListeners())
+			return (int) VALUE.getAndAdd(this, delta);
 		synchronized (getMutex()) {
-			return internalSet(internalGet() + delta);
+			int prev = (int) VALUE.getAndAdd(this, delta);
+			notifyChanged(prev, prev + delta);
+			return prev;
 		}
 	}
 	
+	@Override
+	protected Integer internalGet() {
+		return value;
+	}
+	
+	@Override
+	protected Integer internalSet(Integer value) {
+		return set(Objects.requireNonNull(value, "Value cannot be set to null!"));
+	}
+	
+	private void notifyChanged(int prev, int next) {
+		if (prev != next)
+			callListeners(prev, next);
+	}
+	
 }
@@ -25,10 +25,19 @@ package me.joshlarson.jlcommon.javafx.beans;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 public class ConcurrentList<T> extends ConcurrentCollection<List<T>, T> implements List<T> {
 	
@@ -40,11 +49,63 @@ public class ConcurrentList<T> extends ConcurrentCollection<List<T>, T> implemen
 		super(value);
 	}
 	
+	@Override
+	public boolean add(T t) {
+		synchronized (getMutex()) {
+			List<T> list = internalGetMutable();
+			int index = list.size();
+			list.add(t);
+			if (hasCollectionChangedListeners())
+				callCollectionChangedListeners(CollectionChange.added(index, Collections.singletonList(t)));
+			return true;
+		}
+	}
+	
+	@Override
+	public boolean remove(Object o) {
+		synchronized (getMutex()) {
+			List<T> list = internalGetMutable();
+			int index = list.indexOf(o);
+			if (index == -1)
+				return false;
+			T removed = list.remove(index);
+			if (hasCollectionChangedListeners())
+				callCollectionChangedListeners(CollectionChange.removed(index, Collections.singletonList(removed)));
+			return true;
+		}
+	}
+	
+	@Override
+	public boolean addAll(@NotNull Collection<? extends T> c) {
+		synchronized (getMutex()) {
+			return addAll(internalGet().size(), c);
+		}
+	}
+	
 	@Override
 	public boolean addAll(int index, @NotNull Collection<? extends T> c) {
-		boolean ret = internalGet().addAll(index, c);
-		callCollectionChangedListeners();
-		return false;
+		synchronized (getMutex()) {
+			if (!hasCollectionChangedListeners())
+				return internalGetMutable().addAll(index, c);
+			List<T> added = new ArrayList<>(c);
+			boolean ret = internalGetMutable().addAll(index, added);
+			if (ret)
+				callCollectionChangedListeners(CollectionChange.added(index, added));
+			return ret;
+		}
+	}
+	
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		synchronized (getMutex()) {
+			if (!hasCollectionChangedListeners())
+				return internalGetMutable().removeIf(filter);
+			RemovalTracker<T> tracker = new RemovalTracker<>(filter);
+			boolean ret = internalGetMutable().removeIf(tracker);
+			if (ret)
+				callCollectionChangedListeners(tracker.getChanges());
+			return ret;
+		}
 	}
 	
 	@Override
@@ -55,8 +116,9 @@ public class ConcurrentList<T> extends ConcurrentCollection<List<T>, T> implemen
 	@Override
 	public T set(int index, T element) {
 		synchronized (getMutex()) {
-			T ret = internalGet().set(index, element);
-			callCollectionChangedListeners();
+			T ret = internalGetMutable().set(index, element);
+			if (hasCollectionChangedListeners())
+				callCollectionChangedListeners(CollectionChange.replaced(index, Collections.singletonList(ret), Collections.singletonList(element)));
 			return ret;
 		}
 	}
@@ -64,20 +126,45 @@ public class ConcurrentList<T> extends ConcurrentCollection<List<T>, T> implemen
 	@Override
 	public void add(int index, T element) {
 		synchronized (getMutex()) {
-			internalGet().add(index, element);
-			callCollectionChangedListeners();
+			internalGetMutable().add(index, element);
+			if (hasCollectionChangedListeners())
+				callCollectionChangedListeners(CollectionChange.added(index, Collections.singletonList(element)));
 		}
 	}
 	
 	@Override
 	public T remove(int index) {
 		synchronized (getMutex()) {
-			T ret = internalGet().remove(index);
-			callCollectionChangedListeners();
+			T ret = internalGetMutable().remove(index);
+			if (hasCollectionChangedListeners())
+				callCollectionChangedListeners(CollectionChange.removed(index, Collections.singletonList(ret)));
 			return ret;
 		}
 	}
 	
+	@Override
+	public void replaceAll(UnaryOperator<T> operator) {
+		synchronized (getMutex()) {
+			List<T> list = internalGetMutable();
+			if (!hasCollectionChangedListeners() || list.isEmpty()) {
+				list.replaceAll(operator);
+				return;
+			}
+			List<T> removed = new ArrayList<>(list);
+			list.replaceAll(operator);
+			callCollectionChangedListeners(CollectionChange.replaced(0, removed, new ArrayList<>(list)));
+		}
+	}
+	
+	@Override
+	public void sort(Comparator<? super T> c) {
+		synchronized (getMutex()) {
+			internalGetMutable().sort(c);
+			if (hasCollectionChangedListeners())
+				callCollectionChangedListeners();
+		}
+	}
+	
 	@Override
 	public int indexOf(Object o) {
 		return internalGet().indexOf(o);
@@ -88,22 +175,265 @@ public class ConcurrentList<T> extends ConcurrentCollection<List<T>, T> implemen
 		return internalGet().lastIndexOf(o);
 	}
 	
+	@NotNull
+	@Override
+	public Iterator<T> iterator() {
+		return listIterator();
+	}
+	
 	@NotNull
 	@Override
 	public ListIterator<T> listIterator() {
-		return internalGet().listIterator();
+		return listIterator(0);
 	}
 	
+	/**
+	 * Returns an iterator over a {@link #snapshot()} of this list. Writes through the iterator apply to this list at the
+	 * iterator's position and notify listeners, and throw {@link ConcurrentModificationException} if the list was
+	 * changed some other way since iteration began
+	 */
 	@NotNull
 	@Override
 	public ListIterator<T> listIterator(int index) {
-		return internalGet().listIterator(index);
+		return new WriteThroughListIterator(index);
 	}
 	
+	/**
+	 * Returns a view of a range of this list. Reads and writes go through this list, so writes lock it and notify
+	 * listeners
+	 */
 	@NotNull
 	@Override
 	public List<T> subList(int fromIndex, int toIndex) {
-		return internalGet().subList(fromIndex, toIndex);
+		Objects.checkFromToIndex(fromIndex, toIndex, size());
+		return new SubListView(fromIndex, toIndex);
+	}
+	
+	@Override
+	protected boolean isIndexed() {
+		return true;
+	}
+	
+	private void removeRange(int fromIndex, int toIndex) {
+		synchronized (getMutex()) {
+			List<T> range = internalGetMutable().subList(fromIndex, toIndex);
+			if (range.isEmpty())
+				return;
+			List<T> removed = hasCollectionChangedListeners() ? new ArrayList<>(range) : null;
+			range.clear();
+			if (removed != null)
+				callCollectionChangedListeners(CollectionChange.removed(fromIndex, removed));
+		}
+	}
+	
+	/**
+	 * Iterates over the snapshot taken when iteration began. Writes are applied to the list, and to a private copy of
+	 * the snapshot so that the iterator keeps its position
+	 */
+	private final class WriteThroughListIterator implements ListIterator<T> {
+		
+		private List<T> elements;
+		private boolean copied;
+		private int cursor;
+		private int lastReturned;
+		
+		WriteThroughListIterator(int index) {
+			this.elements = snapshot();
+			this.copied = false;
+			this.cursor = Objects.checkIndex(index, elements.size() + 1);
+			this.lastReturned = -1;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return cursor < elements.size();
+		}
+		
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			lastReturned = cursor++;
+			return elements.get(lastReturned);
+		}
+		
+		@Override
+		public boolean hasPrevious() {
+			return cursor > 0;
+		}
+		
+		@Override
+		public T previous() {
+			if (!hasPrevious())
+				throw new NoSuchElementException();
+			lastReturned = --cursor;
+			return elements.get(lastReturned);
+		}
+		
+		@Override
+		public int nextIndex() {
+			return cursor;
+		}
+		
+		@Override
+		public int previousIndex() {
+			return cursor - 1;
+		}
+		
+		@Override
+		public void remove() {
+			if (lastReturned < 0)
+				throw new IllegalStateException();
+			synchronized (getMutex()) {
+				checkUnchanged(true);
+				ConcurrentList.this.remove(lastReturned);
+			}
+			mutableElements().remove(lastReturned);
+			cursor = lastReturned;
+			lastReturned = -1;
+		}
+		
+		@Override
+		public void set(T t) {
+			if (lastReturned < 0)
+				throw new IllegalStateException();
+			synchronized (getMutex()) {
+				checkUnchanged(true);
+				ConcurrentList.this.set(lastReturned, t);
+			}
+			mutableElements().set(lastReturned, t);
+		}
+		
+		@Override
+		public void add(T t) {
+			synchronized (getMutex()) {
+				checkUnchanged(false);
+				ConcurrentList.this.add(cursor, t);
+			}
+			mutableElements().add(cursor++, t);
+			lastReturned = -1;
+		}
+		
+		private void checkUnchanged(boolean checkLastReturned) {
+			List<T> list = internalGet();
+			if (list.size() != elements.size() || (checkLastReturned && list.get(lastReturned) != elements.get(lastReturned)))
+				throw new ConcurrentModificationException();
+		}
+		
+		private List<T> mutableElements() {
+			if (!copied) {
+				elements = new ArrayList<>(elements);
+				copied = true;
+			}
+			return elements;
+		}
+		
+	}
+	
+	/**
+	 * A range of the list, offset into it. Only tracks its own size, so writes to the list outside of this view may
+	 * shift the elements it covers
+	 */
+	private final class SubListView extends AbstractList<T> {
+		
+		private final int offset;
+		private int size;
+		
+		SubListView(int fromIndex, int toIndex) {
+			this.offset = fromIndex;
+			this.size = toIndex - fromIndex;
+		}
+		
+		@Override
+		public T get(int index) {
+			return ConcurrentList.this.get(offset + Objects.checkIndex(index, size));
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+		
+		@Override
+		public T set(int index, T element) {
+			return ConcurrentList.this.set(offset + Objects.checkIndex(index, size), element);
+		}
+		
+		@Override
+		public void add(int index, T element) {
+			ConcurrentList.this.add(offset + Objects.checkIndex(index, size + 1), element);
+			size++;
+			modCount++;
+		}
+		
+		@Override
+		public T remove(int index) {
+			T removed = ConcurrentList.this.remove(offset + Objects.checkIndex(index, size));
+			size--;
+			modCount++;
+			return removed;
+		}
+		
+		@Override
+		protected void removeRange(int fromIndex, int toIndex) {
+			ConcurrentList.this.removeRange(offset + fromIndex, offset + toIndex);
+			size -= toIndex - fromIndex;
+			modCount++;
+		}
+		
+	}
+	
+	/**
+	 * Records which elements a removeIf call removed, grouping adjacent removals into a single change. Relies on the
+	 * list testing each element exactly once, in order, which all standard lists do
+	 */
+	private static final class RemovalTracker<T> implements Predicate<T> {
+		
+		private final Predicate<? super T> filter;
+		private final List<CollectionChange<T>> changes;
+		private List<T> run;
+		private int runIndex;
+		private int position;
+		private int removed;
+		
+		RemovalTracker(Predicate<? super T> filter) {
+			this.filter = filter;
+			this.changes = new ArrayList<>();
+			this.run = null;
+			this.runIndex = 0;
+			this.position = 0;
+			this.removed = 0;
+		}
+		
+		@Override
+		public boolean test(T t) {
+			boolean remove = filter.test(t);
+			if (remove) {
+				if (run == null) {
+					run = new ArrayList<>();
+					runIndex = position - removed;
+				}
+				run.add(t);
+				removed++;
+			} else {
+				finishRun();
+			}
+			position++;
+			return remove;
+		}
+		
+		List<CollectionChange<T>> getChanges() {
+			finishRun();
+			return changes;
+		}
+		
+		private void finishRun() {
+			if (run != null) {
+				changes.add(CollectionChange.removed(runIndex, run));
+				run = null;
+			}
+		}
+		
 	}
 	
 }
@@ -25,26 +25,46 @@ package me.joshlarson.jlcommon.javafx.beans;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
 import java.util.function.LongUnaryOperator;
 
+/**
+ * Long property backed by a primitive field. Updates are lock-free and allocation-free while no listeners are
+ * registered; boxing and the mutex are only used when a listener or binding needs to be notified.
+ */
 public class ConcurrentLong extends ConcurrentBase<Long> {
 	
+	private static final VarHandle VALUE;
+	
+	static {
+		try {
+			VALUE = MethodHandles.lookup().findVarHandle(ConcurrentLong.class, "value", long.class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	private volatile long value;
+	
 	public ConcurrentLong() {
-		super(true, 0L);
+		this(0L);
 	}
 	
 	public ConcurrentLong(@NotNull Long value) {
-		super(true, value);
+		this((long) value);
 	}
 	
 	public ConcurrentLong(long value) {
-		super(true, value);
+		super(false, null); // storage is provided by this class
+		this.value = value;
 	}
 	
 	@Override
 	@NotNull
 	public Long getValue() {
-		return internalGet();
+		return value;
 	}
 	
 	@Override
@@ -53,11 +73,17 @@ public class ConcurrentLong extends ConcurrentBase<Long> {
 	}
 	
 	public long get() {
-		return internalGet();
+		return value;
 	}
 	
 	public long set(long value) {
-		return internalSet(value);
+		if (!hasListeners())
+			return (long) VALUE.getAndSet(this, value);
+		synchronized (getMutex()) {
+			long prev = (long) VALUE.getAndSet(this, value);
+			notifyChanged(prev, value);
+			return prev;
+		}
 	}
 	
 	public long incrementAndGet() {
@@ -69,53 +95,91 @@ public class ConcurrentLong extends ConcurrentBase<Long> {
 	}
 	
 	public long updateAndGet(@NotNull LongUnaryOperator op) {
+		long prev;
+		long next;
+		if (!hasListeners()) {
+			do {
+				prev = value;
+				next = op.applyAsLong(prev);
+			} while (!VALUE.compareAndSet(this, prev, next));
+			return next;
+		}
 		synchronized (getMutex()) {
-			long newValue = op.applyAsLong(internalGet());
-			internalSet(newValue);
-			return newValue;
+			do {
+				prev = value;
+				next = op.applyAsLong(prev);
+			} while (!VALUE.compareAndSet(this, prev, next));
+			notifyChanged(prev, next);
+			return next;
 		}
 	}
 	
 	public boolean compareAndSet(long expected, long newValue) {
+		if (!hasListeners())
+			return VALUE.compareAndSet(this, expected, newValue);
 		synchronized (getMutex()) {
-			if (internalGet() != expected)
+			if (!VALUE.compareAndSet(this, expected, newValue))
 				return false;
-			long prev = internalSet(newValue);
-			assert prev == expected : "Concurrent modification";
+			notifyChanged(expected, newValue);
+			return true;
 		}
-		return true;
 	}
 	
 	public long getAndIncrement() {
-		synchronized (getMutex()) {
-			return internalSet(internalGet() + 1);
-		}
+		return getAndAdd(1);
 	}
 	
 	public long getAndDecrement() {
-		synchronized (getMutex()) {
-			return internalSet(internalGet() - 1);
-		}
+		return getAndAdd(-1);
 	}
 	
 	public long getAndUpdate(@NotNull LongUnaryOperator op) {
+		long prev;
+		long next;
+		if (!hasListeners()) {
+			do {
+				prev = value;
+				next = op.applyAsLong(prev);
+			} while (!VALUE.compareAndSet(this, prev, next));
+			return prev;
+		}
 		synchronized (getMutex()) {
-			return internalSet(op.applyAsLong(internalGet()));
+			do {
+				prev = value;
+				next = op.applyAsLong(prev);
+			} while (!VALUE.compareAndSet(this, prev, next));
+			notifyChanged(prev, next);
+			return prev;
 		}
 	}
 	
 	public long addAndGet(long delta) {
-		synchronized (getMutex()) {
-			long newValue = internalGet() + delta;
-			internalSet(newValue);
-			return newValue;
-		}
+		return getAndAdd(delta) + delta;
 	}
 	
 	public long getAndAdd(long delta) {
+		if (!hasListeners())
+			return (long) VALUE.getAndAdd(this, delta);
 		synchronized (getMutex()) {
-			return internalSet(internalGet() + delta);
+			long prev = (long) VALUE.getAndAdd(this, delta);
+			notifyChanged(prev, prev + delta);
+			return prev;
 		}
 	}
 	
+	@Override
+	protected Long internalGet() {
+		return value;
+	}
+	
+	@Override
+	protected Long internalSet(Long value) {
+		return set(Objects.requireNonNull(value, "Value cannot be set to null!"));
+	}
+	
+	private void notifyChanged(long prev, long next) {
+		if (prev != next)
+			callListeners(prev, next);
+	}
+	
 }
@@ -26,26 +26,56 @@ package me.joshlarson.jlcommon.javafx.beans;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class ConcurrentMap<K, V> extends ConcurrentBase<Map<K, V>> implements Map<K, V> {
 	
-	private final Map<Object, ComplexMapChangedListener<ConcurrentMap<K, V>>> listeners;
+	private static final int VERSION_PADDING = 8; // one counter per 64-byte cache line
+	
+	private final ListenerRegistry<ComplexMapDeltaListener<ConcurrentMap<K, V>, K, V>> listeners;
+	
+	private volatile int updateDepth;
+	private List<MapChange<K, V>> pendingChanges;
+	private final AtomicLongArray versions;
+	private volatile Snapshot<K, V> snapshot;
 	
 	public ConcurrentMap() {
 		this(new HashMap<>());
 	}
 	
 	public ConcurrentMap(Map<K, V> value) {
+		this(value, 1);
+	}
+	
+	/**
+	 * @param value the backing map
+	 * @param stripes the number of version counters, see {@link #getStripe(Object)}
+	 */
+	protected ConcurrentMap(Map<K, V> value, int stripes) {
 		super(true, value);
-		this.listeners = new HashMap<>();
+		this.listeners = new ListenerRegistry<>();
+		this.updateDepth = 0;
+		this.pendingChanges = null;
+		this.versions = new AtomicLongArray(stripes * VERSION_PADDING);
+		this.snapshot = null;
 	}
 	
 	@Override
@@ -76,54 +106,122 @@ public class ConcurrentMap<K, V> extends ConcurrentBase<Map<K, V>> implements Ma
 	@Nullable
 	@Override
 	public V put(K key, V value) {
-		synchronized (getMutex()) {
-			V ret = internalGet().put(key, value);
-			callMapChangedListeners();
-			return ret;
+		synchronized (getMutex(key)) {
+			Map<K, V> map = internalGet();
+			V prev;
+			if (!hasMapChangedListeners()) {
+				prev = map.put(key, value);
+				modified(key);
+				return prev;
+			}
+			prev = map.get(key);
+			boolean existed = prev != null || map.containsKey(key);
+			map.put(key, value);
+			modified(key);
+			callMapChangedListeners(key, existed, prev, true, value);
+			return prev;
 		}
 	}
 	
 	@Override
+	@SuppressWarnings("unchecked")
 	public V remove(Object key) {
-		synchronized (getMutex()) {
-			V ret = internalGet().remove(key);
-			callMapChangedListeners();
-			return ret;
+		synchronized (getMutex(key)) {
+			Map<K, V> map = internalGet();
+			V prev;
+			if (!hasMapChangedListeners()) {
+				prev = map.remove(key);
+				modified(key);
+				return prev;
+			}
+			if (!map.containsKey(key))
+				return null;
+			prev = map.remove(key);
+			modified(key);
+			callMapChangedListeners(MapChange.removed((K) key, prev));
+			return prev;
 		}
 	}
 	
 	@Override
 	public void putAll(@NotNull Map<? extends K, ? extends V> m) {
 		synchronized (getMutex()) {
-			internalGet().putAll(m);
-			callMapChangedListeners();
+			Map<K, V> map = internalGet();
+			if (!hasMapChangedListeners()) {
+				try {
+					map.putAll(m);
+				} finally {
+					modified();
+				}
+				return;
+			}
+			List<MapChange<K, V>> changes = new ArrayList<>(m.size());
+			try {
+				for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+					K key = e.getKey();
+					V value = e.getValue();
+					V prev = map.get(key);
+					boolean existed = prev != null || map.containsKey(key);
+					map.put(key, value);
+					MapChange<K, V> change = MapChange.between(key, existed, prev, true, value);
+					if (change != null)
+						changes.add(change);
+				}
+			} finally {
+				modified();
+			}
+			if (!changes.isEmpty())
+				callMapChangedListeners(changes);
 		}
 	}
 	
 	@Override
 	public void clear() {
 		synchronized (getMutex()) {
-			internalGet().clear();
-			callMapChangedListeners();
+			Map<K, V> map = internalGet();
+			if (map.isEmpty())
+				return;
+			List<MapChange<K, V>> changes = null;
+			if (hasMapChangedListeners()) {
+				changes = new ArrayList<>(map.size());
+				for (Entry<K, V> e : map.entrySet())
+					changes.add(MapChange.removed(e.getKey(), e.getValue()));
+			}
+			map.clear();
+			modified();
+			if (changes != null)
+				callMapChangedListeners(changes);
 		}
 	}
 	
+	/**
+	 * Returns a view of the keys of this map. Iteration covers a {@link #snapshot()}, and removals go through this map
+	 * and notify listeners
+	 */
 	@NotNull
 	@Override
 	public Set<K> keySet() {
-		return internalGet().keySet();
+		return new KeySetView();
 	}
 	
+	/**
+	 * Returns a view of the values of this map. Iteration covers a {@link #snapshot()}, and removals go through this map
+	 * and notify listeners
+	 */
 	@NotNull
 	@Override
 	public Collection<V> values() {
-		return internalGet().values();
+		return new ValuesView();
 	}
 	
+	/**
+	 * Returns a view of the entries of this map. Iteration covers a {@link #snapshot()}, and removals and
+	 * {@link Entry#setValue(Object)} go through this map and notify listeners
+	 */
 	@NotNull
 	@Override
 	public Set<Entry<K, V>> entrySet() {
-		return internalGet().entrySet();
+		return new EntrySetView();
 	}
 	
 	@Override
@@ -133,89 +231,159 @@ public class ConcurrentMap<K, V> extends ConcurrentBase<Map<K, V>> implements Ma
 	
 	@Override
 	public void forEach(BiConsumer<? super K, ? super V> action) {
-		internalGet().forEach(action);
+		snapshot().forEach(action);
 	}
 	
 	@Override
 	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
 		synchronized (getMutex()) {
-			internalGet().replaceAll(function);
-			callMapChangedListeners();
+			if (!hasMapChangedListeners()) {
+				try {
+					internalGet().replaceAll(function);
+				} finally {
+					modified();
+				}
+				return;
+			}
+			List<MapChange<K, V>> changes = new ArrayList<>();
+			try {
+				internalGet().replaceAll((key, prev) -> {
+					V next = function.apply(key, prev);
+					if (!Objects.equals(prev, next))
+						changes.add(MapChange.replaced(key, prev, next));
+					return next;
+				});
+			} finally {
+				modified();
+			}
+			if (!changes.isEmpty())
+				callMapChangedListeners(changes);
 		}
 	}
 	
 	@Nullable
 	@Override
 	public V putIfAbsent(K key, V value) {
-		synchronized (getMutex()) {
-			V ret = internalGet().putIfAbsent(key, value);
-			callMapChangedListeners();
-			return ret;
+		synchronized (getMutex(key)) {
+			return updateEntry(key, () -> internalGet().putIfAbsent(key, value));
 		}
 	}
 	
 	@Override
 	public boolean remove(Object key, Object value) {
-		synchronized (getMutex()) {
-			boolean ret = internalGet().remove(key, value);
-			callMapChangedListeners();
-			return ret;
+		synchronized (getMutex(key)) {
+			return updateEntry(key, () -> internalGet().remove(key, value));
 		}
 	}
 	
 	@Override
 	public boolean replace(K key, V oldValue, V newValue) {
-		synchronized (getMutex()) {
-			boolean ret = internalGet().replace(key, oldValue, newValue);
-			callMapChangedListeners();
-			return ret;
+		synchronized (getMutex(key)) {
+			return updateEntry(key, () -> internalGet().replace(key, oldValue, newValue));
 		}
 	}
 	
 	@Nullable
 	@Override
 	public V replace(K key, V value) {
-		synchronized (getMutex()) {
-			V ret = internalGet().replace(key, value);
-			callMapChangedListeners();
-			return ret;
+		synchronized (getMutex(key)) {
+			return updateEntry(key, () -> internalGet().replace(key, value));
 		}
 	}
 	
 	@Override
 	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
-		synchronized (getMutex()) {
-			V ret = internalGet().computeIfAbsent(key, mappingFunction);
-			callMapChangedListeners();
-			return ret;
+		synchronized (getMutex(key)) {
+			return updateEntry(key, () -> internalGet().computeIfAbsent(key, mappingFunction));
 		}
 	}
 	
 	@Override
 	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
-		synchronized (getMutex()) {
-			V ret = internalGet().computeIfPresent(key, remappingFunction);
-			callMapChangedListeners();
-			return ret;
+		synchronized (getMutex(key)) {
+			return updateEntry(key, () -> internalGet().computeIfPresent(key, remappingFunction));
 		}
 	}
 	
 	@Override
 	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
-		synchronized (getMutex()) {
-			V ret = internalGet().compute(key, remappingFunction);
-			callMapChangedListeners();
-			return ret;
+		synchronized (getMutex(key)) {
+			return updateEntry(key, () -> internalGet().compute(key, remappingFunction));
 		}
 	}
 	
 	@Override
 	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		synchronized (getMutex(key)) {
+			return updateEntry(key, () -> internalGet().merge(key, value, remappingFunction));
+		}
+	}
+	
+	/**
+	 * Returns an immutable copy of this map. The copy is shared by every reader until the next modification, so repeated
+	 * iteration of an unchanged map does not copy it again
+	 * @return the current contents of this map, in iteration order
+	 */
+	@NotNull
+	public Map<K, V> snapshot() {
+		long version = getVersion();
+		Snapshot<K, V> snapshot = this.snapshot;
+		if (snapshot != null && snapshot.version == version)
+			return snapshot.map;
+		Map<K, V> copy = Collections.unmodifiableMap(copyValue());
+		if (getVersion() == version)
+			this.snapshot = new Snapshot<>(version, copy);
+		return copy;
+	}
+	
+	/**
+	 * Runs the specified updates while holding the mutex, and notifies listeners once with every change made
+	 * @param updates the modifications to apply to this map
+	 */
+	public void batch(@NotNull Runnable updates) {
 		synchronized (getMutex()) {
-			V ret = internalGet().merge(key, value, remappingFunction);
-			callMapChangedListeners();
-			return ret;
+			beginUpdate();
+			try {
+				updates.run();
+			} finally {
+				endUpdate();
+			}
+		}
+	}
+	
+	/**
+	 * Defers change notifications until the matching {@link #endUpdate()}. Calls may be nested
+	 */
+	public void beginUpdate() {
+		synchronized (getMutex()) {
+			if (updateDepth++ == 0)
+				pendingChanges = new ArrayList<>();
+		}
+	}
+	
+	/**
+	 * Ends an update started by {@link #beginUpdate()}. When the outermost update ends, listeners are notified once with
+	 * all of the accumulated changes
+	 */
+	public void endUpdate() {
+		List<MapChange<K, V>> changes;
+		synchronized (getMutex()) {
+			if (updateDepth == 0)
+				throw new IllegalStateException("endUpdate called without a matching beginUpdate");
+			if (--updateDepth > 0)
+				return;
+			changes = pendingChanges;
+			pendingChanges = null;
+		}
+		if (changes.isEmpty())
+			return;
+		for (MapChange<K, V> change : changes) {
+			if (change.isReset()) {
+				changes = Collections.singletonList(change);
+				break;
+			}
 		}
+		fireMapChangedListeners(changes);
 	}
 	
 	public void addMapChangedListener(@NotNull Runnable listener) {
@@ -231,33 +399,315 @@ public class ConcurrentMap<K, V> extends ConcurrentBase<Map<K, V>> implements Ma
 	}
 	
 	public void addMapChangedListener(@NotNull Object key, @NotNull ConcurrentMap.ComplexMapChangedListener<ConcurrentMap<K, V>> listener) {
-		synchronized (listeners) {
-			this.listeners.put(key, listener);
-		}
+		listeners.put(key, (obs, changes) -> listener.accept(obs));
+	}
+	
+	public void addMapChangedListener(@NotNull ComplexMapDeltaListener<ConcurrentMap<K, V>, K, V> listener) {
+		addMapChangedListener(listener, listener);
+	}
+	
+	public void addMapChangedListener(@NotNull Object key, @NotNull ComplexMapDeltaListener<ConcurrentMap<K, V>, K, V> listener) {
+		listeners.put(key, listener);
 	}
 	
 	public boolean removeMapChangedListener(@NotNull Object key) {
-		synchronized (listeners) {
-			return listeners.remove(key) != null;
-		}
+		return listeners.remove(key);
 	}
 	
 	public void clearMapChangedListeners() {
-		synchronized (listeners) {
-			listeners.clear();
+		listeners.clear();
+	}
+	
+	/**
+	 * Returns the lock guarding mutations of a single key. Operations spanning multiple keys lock {@link #getMutex()}
+	 * @param key the key being modified
+	 * @return the object to synchronize on
+	 */
+	protected Object getMutex(Object key) {
+		return getMutex();
+	}
+	
+	/**
+	 * Returns the version counter bumped by writes to a single key, so that writers holding different key mutexes do not
+	 * contend on one counter. Must be less than the stripe count passed to the constructor
+	 * @param key the key being modified
+	 * @return the index of the version counter
+	 */
+	protected int getStripe(Object key) {
+		return 0;
+	}
+	
+	/**
+	 * Copies the backing map for a new {@link #snapshot()}. Must see every modification completed before it was called
+	 * @return a mutable copy of the backing map
+	 */
+	protected Map<K, V> copyValue() {
+		synchronized (getMutex()) {
+			return new LinkedHashMap<>(internalGet());
 		}
 	}
 	
+	/**
+	 * Notifies listeners that the map changed in an unspecified way, requiring a rescan
+	 */
 	protected void callMapChangedListeners() {
-		synchronized (listeners) {
-			for (ComplexMapChangedListener<ConcurrentMap<K, V>> listener : listeners.values()) {
-				listener.accept(this);
+		modified();
+		callMapChangedListeners(MapChange.reset());
+	}
+	
+	protected void callMapChangedListeners(@NotNull MapChange<K, V> change) {
+		callMapChangedListeners(Collections.singletonList(change));
+	}
+	
+	protected void callMapChangedListeners(@NotNull List<MapChange<K, V>> changes) {
+		if (updateDepth > 0) {
+			synchronized (getMutex()) {
+				if (updateDepth > 0) {
+					pendingChanges.addAll(changes);
+					return;
+				}
+			}
+		}
+		fireMapChangedListeners(changes);
+	}
+	
+	protected boolean hasMapChangedListeners() {
+		return !listeners.isEmpty();
+	}
+	
+	private void fireMapChangedListeners(@NotNull List<MapChange<K, V>> changes) {
+		for (ListenerRegistry.Entry<ComplexMapDeltaListener<ConcurrentMap<K, V>, K, V>> entry : listeners.getEntries()) {
+			entry.getListener().accept(this, changes);
+		}
+	}
+	
+	private void callMapChangedListeners(K key, boolean existed, V prev, boolean exists, V next) {
+		MapChange<K, V> change = MapChange.between(key, existed, prev, exists, next);
+		if (change != null)
+			callMapChangedListeners(change);
+	}
+	
+	/**
+	 * Runs a single-key operation, comparing the entry before and after to notify listeners only if it changed
+	 */
+	@SuppressWarnings("unchecked")
+	private <R> R updateEntry(Object key, Supplier<R> operation) {
+		if (!hasMapChangedListeners()) {
+			try {
+				return operation.get();
+			} finally {
+				modified(key);
+			}
+		}
+		Map<K, V> map = internalGet();
+		V prev = map.get(key);
+		boolean existed = prev != null || map.containsKey(key);
+		R ret;
+		try {
+			ret = operation.get();
+		} finally {
+			modified(key);
+		}
+		V next = map.get(key);
+		boolean exists = next != null || map.containsKey(key);
+		callMapChangedListeners((K) key, existed, prev, exists, next);
+		return ret;
+	}
+	
+	/**
+	 * Invalidates the current snapshot. Called after each modification and before listeners are notified, so that
+	 * neither a listener nor a snapshot copied concurrently with the modification sees the previous contents
+	 */
+	private void modified() {
+		versions.incrementAndGet(0);
+	}
+	
+	private void modified(Object key) {
+		versions.incrementAndGet(getStripe(key) * VERSION_PADDING);
+	}
+	
+	/**
+	 * Returns the sum of the version counters. Each counter only increases, so the sum is unchanged only if no write
+	 * completed in between
+	 */
+	private long getVersion() {
+		long version = 0;
+		for (int i = 0; i < versions.length(); i += VERSION_PADDING)
+			version += versions.get(i);
+		return version;
+	}
+	
+	private final class KeySetView extends AbstractSet<K> {
+		
+		@NotNull
+		@Override
+		public Iterator<K> iterator() {
+			return new WriteThroughIterator<>(true, Entry::getKey);
+		}
+		
+		@Override
+		public int size() {
+			return ConcurrentMap.this.size();
+		}
+		
+		@Override
+		public boolean contains(Object o) {
+			return containsKey(o);
+		}
+		
+		@Override
+		public boolean remove(Object o) {
+			synchronized (getMutex(o)) {
+				if (!containsKey(o))
+					return false;
+				ConcurrentMap.this.remove(o);
+				return true;
 			}
 		}
+		
+		@Override
+		public void clear() {
+			ConcurrentMap.this.clear();
+		}
+		
+	}
+	
+	private final class ValuesView extends AbstractCollection<V> {
+		
+		@NotNull
+		@Override
+		public Iterator<V> iterator() {
+			return new WriteThroughIterator<>(false, Entry::getValue);
+		}
+		
+		@Override
+		public int size() {
+			return ConcurrentMap.this.size();
+		}
+		
+		@Override
+		public boolean contains(Object o) {
+			return containsValue(o);
+		}
+		
+		@Override
+		public void clear() {
+			ConcurrentMap.this.clear();
+		}
+		
+	}
+	
+	private final class EntrySetView extends AbstractSet<Entry<K, V>> {
+		
+		@NotNull
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new WriteThroughIterator<>(false, WriteThroughEntry::new);
+		}
+		
+		@Override
+		public int size() {
+			return ConcurrentMap.this.size();
+		}
+		
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Entry))
+				return false;
+			Entry<?, ?> e = (Entry<?, ?>) o;
+			V value = get(e.getKey());
+			return value != null ? value.equals(e.getValue()) : e.getValue() == null && containsKey(e.getKey());
+		}
+		
+		@Override
+		public boolean remove(Object o) {
+			if (!(o instanceof Entry))
+				return false;
+			Entry<?, ?> e = (Entry<?, ?>) o;
+			return ConcurrentMap.this.remove(e.getKey(), e.getValue());
+		}
+		
+		@Override
+		public void clear() {
+			ConcurrentMap.this.clear();
+		}
+		
+	}
+	
+	/**
+	 * Iterates over the entries of the snapshot taken when iteration began, removing them through the map. Keys are
+	 * removed whatever their current value, values and entries only if the key still maps to the iterated value
+	 */
+	private final class WriteThroughIterator<E> implements Iterator<E> {
+		
+		private final Iterator<Entry<K, V>> entries;
+		private final boolean removeByKey;
+		private final Function<Entry<K, V>, E> mapper;
+		private Entry<K, V> lastReturned;
+		
+		WriteThroughIterator(boolean removeByKey, Function<Entry<K, V>, E> mapper) {
+			this.entries = snapshot().entrySet().iterator();
+			this.removeByKey = removeByKey;
+			this.mapper = mapper;
+			this.lastReturned = null;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return entries.hasNext();
+		}
+		
+		@Override
+		public E next() {
+			lastReturned = entries.next();
+			return mapper.apply(lastReturned);
+		}
+		
+		@Override
+		public void remove() {
+			if (lastReturned == null)
+				throw new IllegalStateException();
+			if (removeByKey)
+				ConcurrentMap.this.remove(lastReturned.getKey());
+			else
+				ConcurrentMap.this.remove(lastReturned.getKey(), lastReturned.getValue());
+			lastReturned = null;
+		}
+		
+	}
+	
+	private final class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+		
+		WriteThroughEntry(Entry<K, V> entry) {
+			super(entry);
+		}
+		
+		@Override
+		public V setValue(V value) {
+			super.setValue(value);
+			return put(getKey(), value);
+		}
+		
+	}
+	
+	private static final class Snapshot<K, V> {
+		
+		private final long version;
+		private final Map<K, V> map;
+		
+		Snapshot(long version, Map<K, V> map) {
+			this.version = version;
+			this.map = map;
+		}
+		
 	}
 	
 	public interface ComplexMapChangedListener<S> extends Consumer<S> {
 		
 	}
 	
+	public interface ComplexMapDeltaListener<S, K, V> {
+		void accept(@NotNull S map, @NotNull List<MapChange<K, V>> changes);
+	}
+	
 }
@@ -26,6 +26,7 @@ package me.joshlarson.jlcommon.javafx.beans;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Queue;
 
 public class ConcurrentQueue<T> extends ConcurrentCollection<Queue<T>, T> implements Queue<T> {
@@ -41,8 +42,9 @@ public class ConcurrentQueue<T> extends ConcurrentCollection<Queue<T>, T> implem
 	@Override
 	public boolean offer(T t) {
 		synchronized (getMutex()) {
-			boolean ret = internalGet().offer(t);
-			callCollectionChangedListeners();
+			boolean ret = internalGetMutable().offer(t);
+			if (ret && hasCollectionChangedListeners())
+				callCollectionChangedListeners(CollectionChange.added(-1, Collections.singletonList(t)));
 			return ret;
 		}
 	}
@@ -50,8 +52,9 @@ public class ConcurrentQueue<T> extends ConcurrentCollection<Queue<T>, T> implem
 	@Override
 	public T remove() {
 		synchronized (getMutex()) {
-			T ret = internalGet().remove();
-			callCollectionChangedListeners();
+			T ret = internalGetMutable().remove();
+			if (hasCollectionChangedListeners())
+				callCollectionChangedListeners(CollectionChange.removed(-1, Collections.singletonList(ret)));
 			return ret;
 		}
 	}
@@ -60,8 +63,12 @@ public class ConcurrentQueue<T> extends ConcurrentCollection<Queue<T>, T> implem
 	@Override
 	public T poll() {
 		synchronized (getMutex()) {
-			T ret = internalGet().poll();
-			callCollectionChangedListeners();
+			Queue<T> queue = internalGetMutable();
+			if (queue.isEmpty())
+				return null;
+			T ret = queue.poll();
+			if (hasCollectionChangedListeners())
+				callCollectionChangedListeners(CollectionChange.removed(-1, Collections.singletonList(ret)));
 			return ret;
 		}
 	}
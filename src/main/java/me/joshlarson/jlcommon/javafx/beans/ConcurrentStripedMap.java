@@ -0,0 +1,125 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A {@link ConcurrentMap} backed by a {@link ConcurrentHashMap}, intended for large maps with many writer threads.
+ * Reads never lock, and single-key writes only lock the stripe that the key hashes to, so writes to different stripes
+ * proceed in parallel. Each stripe also has its own version counter for invalidating snapshots. putAll, replaceAll,
+ * clear and batch lock every stripe, so the stripe count is rounded up to a power of two and capped at 256. Snapshots
+ * are copied without locking, so a snapshot taken during a write may or may not include it, but a snapshot is never
+ * reused once a write completes.
+ * <p>
+ * Changes to keys in different stripes may notify listeners concurrently from different threads. Listeners that mutate
+ * another key of this map from within a callback can deadlock with a writer doing the same in the opposite direction.
+ * Like {@link ConcurrentHashMap}, null keys and values are not supported.
+ */
+public class ConcurrentStripedMap<K, V> extends ConcurrentMap<K, V> {
+	
+	private static final int MAX_STRIPES = 256;
+	
+	private final Object [] stripes;
+	
+	public ConcurrentStripedMap() {
+		this(Runtime.getRuntime().availableProcessors() * 4);
+	}
+	
+	public ConcurrentStripedMap(int stripes) {
+		this(new ConcurrentHashMap<>(), getStripeCount(stripes));
+	}
+	
+	private ConcurrentStripedMap(ConcurrentHashMap<K, V> value, int stripes) {
+		super(value, stripes);
+		this.stripes = new Object[stripes];
+		for (int i = 0; i < this.stripes.length; i++)
+			this.stripes[i] = new Object();
+	}
+	
+	@Override
+	public void putAll(@NotNull Map<? extends K, ? extends V> m) {
+		withAllStripes(0, () -> super.putAll(m));
+	}
+	
+	@Override
+	public void clear() {
+		withAllStripes(0, super::clear);
+	}
+	
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		withAllStripes(0, () -> super.replaceAll(function));
+	}
+	
+	@Override
+	public void batch(@NotNull Runnable updates) {
+		withAllStripes(0, () -> super.batch(updates));
+	}
+	
+	@Override
+	protected Object getMutex(Object key) {
+		return stripes[getStripe(key)];
+	}
+	
+	@Override
+	protected int getStripe(Object key) {
+		int hash = Objects.hashCode(key);
+		return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+	}
+	
+	@Override
+	protected Map<K, V> copyValue() {
+		return new LinkedHashMap<>(internalGet());
+	}
+	
+	private static int getStripeCount(int stripes) {
+		if (stripes <= 0)
+			throw new IllegalArgumentException("stripes must be positive");
+		int size = 1;
+		while (size < Math.min(stripes, MAX_STRIPES))
+			size <<= 1;
+		return size;
+	}
+	
+	/**
+	 * Runs the operation while holding every stripe, nesting one monitor per stripe
+	 */
+	private void withAllStripes(int stripe, Runnable operation) {
+		if (stripe == stripes.length) {
+			operation.run();
+			return;
+		}
+		synchronized (stripes[stripe]) {
+			withAllStripes(stripe + 1, operation);
+		}
+	}
+	
+}
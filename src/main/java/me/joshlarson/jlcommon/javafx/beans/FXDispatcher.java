@@ -0,0 +1,89 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import javafx.application.Platform;
+import me.joshlarson.jlcommon.log.Log;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects work destined for the FX thread and drains all of it from a single {@link Platform#runLater(Runnable)} call,
+ * so a burst of notifications costs one pulse entry instead of one per notification.
+ */
+final class FXDispatcher {
+	
+	static final Executor EXECUTOR = FXDispatcher::submit;
+	
+	private static final Queue<Runnable> PENDING = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger PENDING_COUNT = new AtomicInteger(0);
+	private static final AtomicBoolean SCHEDULED = new AtomicBoolean(false);
+	
+	private FXDispatcher() {
+		
+	}
+	
+	/**
+	 * Queues the task for the next drain on the FX thread
+	 * @throws RejectedExecutionException if the FX toolkit is not running, in which case the task is not queued
+	 */
+	static void submit(@NotNull Runnable task) {
+		PENDING.add(task);
+		PENDING_COUNT.incrementAndGet();
+		if (SCHEDULED.compareAndSet(false, true)) {
+			try {
+				Platform.runLater(FXDispatcher::drain);
+			} catch (IllegalStateException e) {
+				// not started yet or already exited, so let the next submit try to schedule a drain again
+				SCHEDULED.set(false);
+				if (PENDING.remove(task)) {
+					PENDING_COUNT.decrementAndGet();
+					throw new RejectedExecutionException("FX toolkit is not running", e);
+				}
+			}
+		}
+	}
+	
+	private static void drain() {
+		SCHEDULED.set(false);
+		// Only run what was queued before this drain, anything submitted while draining waits for the next one
+		for (int remaining = PENDING_COUNT.getAndSet(0); remaining > 0; remaining--) {
+			Runnable task = PENDING.poll();
+			assert task != null : "pending count out of sync";
+			try {
+				task.run();
+			} catch (Throwable t) {
+				Log.e("Caught exception in FX listener");
+				Log.e(t);
+			}
+		}
+	}
+	
+}
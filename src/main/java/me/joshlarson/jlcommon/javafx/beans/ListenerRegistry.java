@@ -0,0 +1,136 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keyed listener storage that never blocks. Registration atomically swaps in a modified copy of the listener array, while
+ * notification iterates over whichever array was current when it started.
+ */
+final class ListenerRegistry<L> {
+	
+	private static final Entry<?>[] EMPTY = new Entry<?>[0];
+	
+	private final AtomicReference<Entry<L>[]> entries;
+	
+	@SuppressWarnings("unchecked")
+	ListenerRegistry() {
+		this.entries = new AtomicReference<>((Entry<L>[]) EMPTY);
+	}
+	
+	void put(@NotNull Object key, @NotNull L listener) {
+		Entry<L> entry = new Entry<>(key, listener);
+		Entry<L>[] prev;
+		Entry<L>[] next;
+		do {
+			prev = entries.get();
+			int index = indexOf(prev, key);
+			if (index == -1) {
+				next = Arrays.copyOf(prev, prev.length + 1);
+				next[prev.length] = entry;
+			} else {
+				next = prev.clone();
+				next[index] = entry;
+			}
+		} while (!entries.compareAndSet(prev, next));
+	}
+	
+	boolean remove(@NotNull Object key) {
+		Entry<L>[] prev;
+		Entry<L>[] next;
+		do {
+			prev = entries.get();
+			int index = indexOf(prev, key);
+			if (index == -1)
+				return false;
+			next = Arrays.copyOf(prev, prev.length - 1);
+			System.arraycopy(prev, index + 1, next, index, prev.length - index - 1);
+		} while (!entries.compareAndSet(prev, next));
+		return true;
+	}
+	
+	/**
+	 * Returns the listener registered with the specified key
+	 * @return the listener, or null if there is none
+	 */
+	L get(@NotNull Object key) {
+		Entry<L>[] current = entries.get();
+		int index = indexOf(current, key);
+		return (index == -1) ? null : current[index].listener;
+	}
+	
+	@SuppressWarnings("unchecked")
+	void clear() {
+		entries.set((Entry<L>[]) EMPTY);
+	}
+	
+	boolean isEmpty() {
+		return entries.get().length == 0;
+	}
+	
+	/**
+	 * Returns the current listener snapshot. The returned array must not be modified
+	 * @return the registered listeners, in registration order
+	 */
+	@NotNull
+	Entry<L>[] getEntries() {
+		return entries.get();
+	}
+	
+	private static int indexOf(Entry<?>[] entries, Object key) {
+		for (int i = 0; i < entries.length; i++) {
+			Object entryKey = entries[i].key;
+			if (entryKey == key || entryKey.equals(key))
+				return i;
+		}
+		return -1;
+	}
+	
+	static final class Entry<L> {
+		
+		private final Object key;
+		private final L listener;
+		
+		private Entry(Object key, L listener) {
+			this.key = key;
+			this.listener = listener;
+		}
+		
+		@NotNull
+		Object getKey() {
+			return key;
+		}
+		
+		@NotNull
+		L getListener() {
+			return listener;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,132 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Describes a change to a single entry of a {@link ConcurrentMap}
+ */
+public final class MapChange<K, V> {
+	
+	private static final MapChange<?, ?> RESET = new MapChange<>(Kind.RESET, null, null, null);
+	
+	private final Kind kind;
+	private final K key;
+	private final V oldValue;
+	private final V newValue;
+	
+	private MapChange(@NotNull Kind kind, K key, V oldValue, V newValue) {
+		this.kind = kind;
+		this.key = key;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+	
+	@NotNull
+	public Kind getKind() {
+		return kind;
+	}
+	
+	public K getKey() {
+		return key;
+	}
+	
+	/**
+	 * Returns the value mapped before this change, or null if the entry was added
+	 * @return the previous value
+	 */
+	public V getOldValue() {
+		return oldValue;
+	}
+	
+	/**
+	 * Returns the value mapped after this change, or null if the entry was removed
+	 * @return the new value
+	 */
+	public V getNewValue() {
+		return newValue;
+	}
+	
+	/**
+	 * Returns true if the map changed in a way that isn't described by this event, and must be rescanned
+	 * @return TRUE if the listener should rescan the map, FALSE otherwise
+	 */
+	public boolean isReset() {
+		return kind == Kind.RESET;
+	}
+	
+	@Override
+	@NotNull
+	public String toString() {
+		if (kind == Kind.RESET)
+			return "MapChange[RESET]";
+		return "MapChange[" + kind + " key=" + key + " old=" + oldValue + " new=" + newValue + "]";
+	}
+	
+	@NotNull
+	public static <K, V> MapChange<K, V> added(K key, V newValue) {
+		return new MapChange<>(Kind.ADDED, key, null, newValue);
+	}
+	
+	@NotNull
+	public static <K, V> MapChange<K, V> removed(K key, V oldValue) {
+		return new MapChange<>(Kind.REMOVED, key, oldValue, null);
+	}
+	
+	@NotNull
+	public static <K, V> MapChange<K, V> replaced(K key, V oldValue, V newValue) {
+		return new MapChange<>(Kind.REPLACED, key, oldValue, newValue);
+	}
+	
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public static <K, V> MapChange<K, V> reset() {
+		return (MapChange<K, V>) RESET;
+	}
+	
+	/**
+	 * Creates the change describing an entry going from one state to another
+	 * @return the change, or null if the entry is unchanged
+	 */
+	@Nullable
+	static <K, V> MapChange<K, V> between(K key, boolean existed, V oldValue, boolean exists, V newValue) {
+		if (!existed)
+			return exists ? added(key, newValue) : null;
+		if (!exists)
+			return removed(key, oldValue);
+		return Objects.equals(oldValue, newValue) ? null : replaced(key, oldValue, newValue);
+	}
+	
+	public enum Kind {
+		ADDED,
+		REMOVED,
+		REPLACED,
+		RESET
+	}
+	
+}
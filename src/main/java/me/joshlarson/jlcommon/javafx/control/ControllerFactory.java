@@ -0,0 +1,90 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Creates controllers and services through a factory registered for their class, or otherwise through their public
+ * default constructor. The constructor is looked up once per class and called through a method handle
+ */
+final class ControllerFactory {
+	
+	private static final MethodType DEFAULT_CONSTRUCTOR = MethodType.methodType(void.class);
+	private static final MethodType OBJECT_FACTORY = MethodType.methodType(Object.class);
+	private static final ClassValue<Instantiator> INSTANTIATORS = new ClassValue<>() {
+		@Override
+		protected Instantiator computeValue(@NotNull Class<?> type) {
+			return createInstantiator(type);
+		}
+	};
+	
+	private final Map<Class<?>, Supplier<?>> factories;
+	
+	ControllerFactory(@NotNull Map<Class<?>, Supplier<?>> factories) {
+		this.factories = Map.copyOf(factories);
+	}
+	
+	/**
+	 * Creates a new instance of the specified class
+	 * @param type the class to instantiate
+	 * @return the new instance
+	 * @throws NoSuchMethodException if no factory is registered and the class has no public default constructor
+	 * @throws InvocationTargetException if the factory or constructor threw
+	 * @throws ReflectiveOperationException if the class cannot be instantiated
+	 */
+	@NotNull
+	<T> T create(@NotNull Class<T> type) throws ReflectiveOperationException {
+		Supplier<?> factory = factories.get(type);
+		Object instance;
+		if (factory != null) {
+			try {
+				instance = factory.get();
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		} else {
+			instance = INSTANTIATORS.get(type).newInstance(type);
+		}
+		return type.cast(instance);
+	}
+	
+	private static Instantiator createInstantiator(Class<?> type) {
+		try {
+			return new Instantiator(MethodHandles.lookup().findConstructor(type, DEFAULT_CONSTRUCTOR).asType(OBJECT_FACTORY));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			// not accessible through a method handle, so leave the error reporting to reflection
+			return new Instantiator(null);
+		}
+	}
+	
+	/**
+	 * The cached constructor of a class. The class holds its own entry, and the entry only refers back to the class
+	 * through the constructor handle, so a class with a cached constructor can still be unloaded along with its loader
+	 */
+	private static final class Instantiator {
+		
+		private final MethodHandle constructor;
+		
+		Instantiator(MethodHandle constructor) {
+			this.constructor = constructor;
+		}
+		
+		Object newInstance(Class<?> type) throws ReflectiveOperationException {
+			if (constructor == null)
+				return type.getConstructor().newInstance();
+			try {
+				return (Object) constructor.invokeExact();
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		}
+		
+	}
+	
+}
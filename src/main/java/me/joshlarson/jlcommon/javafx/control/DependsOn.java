@@ -0,0 +1,25 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import me.joshlarson.jlcommon.control.ServiceBase;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the services that the annotated service or controller depends on. Within an {@link FXMLManager}, a child is
+ * initialized and started after every other child that is an instance of one of these classes, and stopped and
+ * terminated before them. Dependencies that are not children of the same manager are ignored.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DependsOn {
+	
+	Class<? extends ServiceBase> [] value();
+	
+}
@@ -2,18 +2,25 @@ package me.joshlarson.jlcommon.javafx.control;
 
 import javafx.application.Application;
 import javafx.stage.Stage;
-import me.joshlarson.jlcommon.concurrency.Delay;
 import me.joshlarson.jlcommon.concurrency.ThreadPool;
 import me.joshlarson.jlcommon.log.Log;
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 public final class FXMLApplication extends Application {
 	
 	private static final ThreadPool RUN_THREAD = new ThreadPool(1, "jlcommon-fx-application-thread");
 	private static final AtomicReference<FXMLApplication> INSTANCE = new AtomicReference<>(null);
+	private static final CompletableFuture<FXMLApplication> STARTED = new CompletableFuture<>();
+	private static final AtomicBoolean LAUNCHED = new AtomicBoolean(false);
+	private static final AtomicLong LAUNCH_TIME = new AtomicLong(0);
+	private static final AtomicReference<Duration> STARTUP_TIME = new AtomicReference<>(null);
 	
 	private Stage primaryStage;
 	
@@ -26,6 +33,10 @@ public final class FXMLApplication extends Application {
 		this.primaryStage = primaryStage;
 		Application prev = INSTANCE.getAndSet(this);
 		assert prev == null : "executing application twice!";
+		Duration startupTime = Duration.ofNanos(System.nanoTime() - LAUNCH_TIME.get());
+		STARTUP_TIME.set(startupTime);
+		Log.d("JavaFX toolkit started in %.3fms", startupTime.toNanos() / 1E6);
+		STARTED.complete(this);
 	}
 	
 	@Override
@@ -39,16 +50,45 @@ public final class FXMLApplication extends Application {
 		return Objects.requireNonNull(primaryStage, "application not initialized");
 	}
 	
+	/**
+	 * Launches the JavaFX application if it is not running yet, and blocks until it has started
+	 * @param args the arguments to launch the application with
+	 */
 	public static void ensureStarted(String ... args) {
-		if (!RUN_THREAD.isRunning()) {
+		ensureStartedAsync(args).join();
+	}
+	
+	/**
+	 * Launches the JavaFX application if it is not running yet
+	 * @param args the arguments to launch the application with
+	 * @return a future completed with the application once it has started, or exceptionally if the launch failed
+	 */
+	@NotNull
+	public static CompletableFuture<FXMLApplication> ensureStartedAsync(String ... args) {
+		if (LAUNCHED.compareAndSet(false, true)) {
+			LAUNCH_TIME.set(System.nanoTime());
 			RUN_THREAD.start();
-			RUN_THREAD.execute(() -> launch(args));
-			while (INSTANCE.get() == null)
-				Delay.sleepMicro(1);
+			RUN_THREAD.execute(() -> {
+				try {
+					launch(args);
+				} catch (Throwable t) {
+					STARTED.completeExceptionally(t);
+				}
+			});
 		} else {
 			if (args.length > 0)
 				Log.w("Attempted to launch fxml application using arguments, but was already running");
 		}
+		return STARTED.copy();
+	}
+	
+	/**
+	 * Returns how long the JavaFX toolkit took to start, from the launch until the application was started
+	 * @return the startup time
+	 */
+	@NotNull
+	public static Duration getStartupTime() {
+		return Objects.requireNonNull(STARTUP_TIME.get(), "FXMLApplication has not been initialized yet");
 	}
 	
 	@NotNull
@@ -0,0 +1,31 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import javafx.fxml.Initializable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URL;
+import java.util.ResourceBundle;
+import java.util.function.Consumer;
+
+/**
+ * Builds the scene graph and controllers of an FXML file directly in code, so that inflating the view needs neither an
+ * XML parse nor reflection. Registered with {@link FXMLManager.FXMLManagerBuilder#addCompiledView(URL, FXMLCompiledView)}
+ * and used in place of the FXML file wherever it is inflated. Compiled views are written by hand, or generated from
+ * the FXML file at build time with {@link FXMLViewCompiler}.
+ */
+@FunctionalInterface
+public interface FXMLCompiledView {
+	
+	/**
+	 * Builds the view. Each controller must be passed to {@code register} as soon as it is constructed, before its nodes
+	 * are injected and before {@link Initializable#initialize(URL, ResourceBundle)} is called on it
+	 * @param location the location of the FXML file this view replaces
+	 * @param resources the resource bundle to localize the view with, or null if there is none
+	 * @param register sets up each controller the same way as one created by an FXMLLoader
+	 * @return the controller of the root element
+	 */
+	@NotNull
+	Initializable build(@NotNull URL location, @Nullable ResourceBundle resources, @NotNull Consumer<Object> register);
+	
+}
@@ -0,0 +1,23 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("me.joshlarson.jlcommon.javafx.FXMLLifecycle")
+@Label("FXML Lifecycle Phase")
+@Description("A lifecycle phase of a view or service managed by an FXMLManager")
+@Category({"jlcommon", "JavaFX"})
+@StackTrace(false)
+final class FXMLLifecycleEvent extends Event {
+	
+	@Label("Phase")
+	String phase;
+	
+	@Label("Subject")
+	String subject;
+	
+}
@@ -0,0 +1,36 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Receives how long each lifecycle phase of the views and services of an {@link FXMLManager} took. Called on the
+ * thread that ran the phase, so implementations must be thread-safe and should return quickly.
+ */
+@FunctionalInterface
+public interface FXMLLifecycleListener {
+	
+	/**
+	 * Called when a phase completes, whether or not it succeeded
+	 * @param phase the phase that completed
+	 * @param subject the FXML location for {@link Phase#INFLATE}, the waiting operation for {@link Phase#FX_WAIT}, and
+	 *                the class name of the controller or service otherwise
+	 * @param duration how long the phase took
+	 */
+	void onPhaseCompleted(@NotNull Phase phase, @NotNull String subject, @NotNull Duration duration);
+	
+	enum Phase {
+		/** Parsing an FXML file, or building a compiled view, including the construction of its controllers */
+		INFLATE,
+		/** Constructing a controller or service */
+		CONSTRUCT,
+		INITIALIZE,
+		START,
+		STOP,
+		TERMINATE,
+		/** Waiting for the FX thread to pick up work posted to it */
+		FX_WAIT
+	}
+	
+}
@@ -4,25 +4,55 @@ import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.SplitPane;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
+import me.joshlarson.jlcommon.concurrency.ThreadPool;
 import me.joshlarson.jlcommon.control.IntentManager;
 import me.joshlarson.jlcommon.control.Manager;
 import me.joshlarson.jlcommon.control.ServiceBase;
+import me.joshlarson.jlcommon.javafx.control.FXMLLifecycleListener.Phase;
 import me.joshlarson.jlcommon.log.Log;
 import me.joshlarson.jlcommon.utilities.Arguments;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class FXMLManager implements ServiceBase {
@@ -31,12 +61,31 @@ public class FXMLManager implements ServiceBase {
 	private final AtomicReference<ResourceBundle> resourceBundle;
 	private final AtomicReference<IntentManager> intentManager;
 	private final Class<?> klass;
+	private final String resourceBundlePath;
+	private final ResourceBundleCache resourceBundles;
+	private final LocalizedStrings localizedStrings;
 	private final String [] args;
+	private final int inflationParallelism;
+	private final Duration lifecycleTimeout;
 	private final List<URL> controllerUrls;
+	private final List<URL> deferredUrls;
+	private final boolean preloadDeferred;
 	private final List<Class<? extends ServiceBase>> customServices;
-	private final List<ServiceBase> controllers;
-	private final List<ServiceBase> initialized;
-	private final List<ServiceBase> started;
+	private final Map<String, FXMLCompiledView> compiledViews;
+	private final int shutdownParallelism;
+	private final ServiceSet controllers;
+	private final ServiceSet initialized;
+	private final ServiceSet started;
+	private final FXMLTemplateCache templates;
+	private final LifecycleMetrics metrics;
+	private final ControllerFactory controllerFactory;
+	private final Map<String, InflatedView> views; // only changed on the FX thread
+	private final ViewPool viewPool;
+	private final AtomicBoolean running;
+	private final ThreadPool preloader;
+	private final boolean hotReload;
+	private final AtomicReference<WatchService> watchService;
+	private final ThreadPool reloader;
 	
 	private FXMLManager(FXMLManagerBuilder builder) {
 		this.klass = builder.getKlass();
@@ -44,98 +93,130 @@ public class FXMLManager implements ServiceBase {
 		this.resourceBundle = new AtomicReference<>(null);
 		this.intentManager = new AtomicReference<>(null);
 		this.args = Objects.requireNonNull(builder.getArgs(), "args");
+		this.inflationParallelism = builder.getInflationParallelism();
+		this.lifecycleTimeout = builder.getLifecycleTimeout();
 		
-		String resourceBundlePath = builder.getResourceBundlePath();
+		this.resourceBundlePath = builder.getResourceBundlePath();
 		if (resourceBundlePath != null) {
 			Objects.requireNonNull(klass, "klass must be set if resourceBundlePath is set!");
 			Objects.requireNonNull(locale.get(), "locale must be set if resourceBundlePath is set!");
-			this.resourceBundle.set(ResourceBundle.getBundle(resourceBundlePath, locale.get(), klass.getModule()));
+			this.resourceBundles = new ResourceBundleCache(klass.getModule());
+			this.resourceBundle.set(resourceBundles.get(resourceBundlePath, locale.get()));
+			resourceBundles.preload(resourceBundlePath, builder.getPreloadedLocales());
+		} else {
+			this.resourceBundles = null;
 		}
+		this.localizedStrings = new LocalizedStrings();
+		localizedStrings.update(resourceBundle.get());
 		
 		this.controllerUrls = List.copyOf(builder.getFxml());
+		this.deferredUrls = List.copyOf(builder.getDeferredFxml());
+		this.preloadDeferred = builder.isPreloadDeferred();
 		this.customServices = List.copyOf(builder.getServices());
-		this.controllers = new CopyOnWriteArrayList<>();
-		this.initialized = new CopyOnWriteArrayList<>();
-		this.started = new CopyOnWriteArrayList<>();
+		this.compiledViews = Map.copyOf(builder.getCompiledViews());
+		this.shutdownParallelism = builder.getShutdownParallelism();
+		this.controllers = new ServiceSet();
+		this.initialized = new ServiceSet();
+		this.started = new ServiceSet();
+		this.metrics = new LifecycleMetrics(builder.getLifecycleListeners());
+		this.controllerFactory = new ControllerFactory(builder.getControllerFactories());
+		this.views = new ConcurrentHashMap<>();
+		this.viewPool = new ViewPool(builder.getViewPoolSize());
+		this.running = new AtomicBoolean(false);
+		this.preloader = new ThreadPool(1, "jlcommon-fx-preloader");
+		this.hotReload = builder.isHotReload();
+		this.templates = new FXMLTemplateCache(hotReload);
+		this.watchService = new AtomicReference<>(null);
+		this.reloader = new ThreadPool(1, "jlcommon-fx-reloader");
 	}
 	
 	@Override
 	public boolean initialize() {
-		FXMLApplication.ensureStarted(args);
-		controllers.clear();
-		return runOnFxAndWait(() -> {
-			for (URL url : controllerUrls) {
-				createChild(url);
-			}
-			for (Class<? extends ServiceBase> serviceClass : customServices) {
-				try {
-					setupChild(serviceClass.getConstructor().newInstance());
-				} catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-					Log.e(e);
-				}
-			}
-			for (ServiceBase child : controllers) {
-				if (!initializeChild(child))
-					return false;
-			}
-			return true;
-		});
+		return await(initializeAsync());
 	}
 	
 	@Override
 	public boolean start() {
-		return runOnFxAndWait(() -> {
-			for (ServiceBase child : controllers) {
-				if (!startChild(child))
+		return await(startAsync());
+	}
+	
+	/**
+	 * Launches the FX application if necessary, then inflates and initializes every view and service on the FX thread.
+	 * Runs directly if called from the FX thread
+	 * @return a future completed with TRUE if every child initialized, FALSE if one failed, or exceptionally if
+	 *         inflation failed, a child threw, or the lifecycle timeout elapsed
+	 */
+	@NotNull
+	public CompletableFuture<Boolean> initializeAsync() {
+		return withTimeout(FXMLApplication.ensureStartedAsync(args).thenCompose(app -> {
+			controllers.clear();
+			views.clear();
+			viewPool.clear();
+			if (inflationParallelism > 1) {
+				CompletableFuture<List<InflatedView>> inflation = inflateAll(controllerUrls);
+				// a caller on the FX thread may be blocked on the result, so waiting in the FX queue would never finish
+				if (Platform.isFxApplicationThread())
+					return runOnFx("initialize", () -> initializeInflated(inflation.join()));
+				return inflation.thenCompose(inflated -> runOnFx("initialize", () -> initializeInflated(inflated)));
+			}
+			return runOnFx("initialize", () -> {
+				for (URL url : controllerUrls) {
+					InflatedView view = inflate(url);
+					for (Object controller : view.getControllers())
+						addController(controller);
+					views.put(url.toExternalForm(), view);
+				}
+				return initializeChildren();
+			});
+		}));
+	}
+	
+	/**
+	 * Starts every child on the FX thread. Runs directly if called from the FX thread
+	 * @return a future completed with TRUE if every child started, FALSE if one failed, or exceptionally if a child threw
+	 *         or the lifecycle timeout elapsed
+	 */
+	@NotNull
+	public CompletableFuture<Boolean> startAsync() {
+		return withTimeout(runOnFx("start", () -> {
+			for (ServiceBase child : controllers.snapshot()) {
+				if (!startChild(child, true))
 					return false;
 			}
+			running.set(true);
+			if (preloadDeferred && !deferredUrls.isEmpty()) {
+				preloader.start();
+				preloader.execute(this::preloadDeferred);
+			}
+			if (hotReload)
+				startWatching();
 			return true;
-		});
+		}));
 	}
 	
 	@Override
 	public boolean stop() {
-		boolean success = true;
-		for (ServiceBase child : started) {
-			try {
-				Log.t("%s: Stopping %s...", getClass().getSimpleName(), child.getClass().getSimpleName());
-				if (!child.stop()) {
-					Log.e(child.getClass().getSimpleName() + " failed to stop!");
-					success = false;
-				}
-			} catch (Throwable t) {
-				Log.e("Caught exception during stop. Service: %s", child.getClass().getName());
-				Log.e(t);
-				success = false;
-			}
+		running.set(false);
+		if (preloader.isRunning()) {
+			preloader.stop(true);
+			preloader.awaitTermination(1000);
 		}
+		stopWatching();
+		boolean success = runInReverseDependencyOrder(started.snapshot(), this::stopChild);
 		started.clear();
 		return success;
 	}
 	
 	@Override
 	public boolean terminate() {
-		boolean success = true;
-		for (ServiceBase child : initialized) {
-			try {
-				Log.t("%s: Terminating %s...", getClass().getSimpleName(), child.getClass().getSimpleName());
-				if (!child.terminate()) {
-					Log.e(child.getClass().getSimpleName() + " failed to terminate!");
-					success = false;
-				}
-			} catch (Throwable t) {
-				Log.e("Caught exception during terminate. Service: %s", child.getClass().getName());
-				Log.e(t);
-				success = false;
-			}
-		}
+		boolean success = runInReverseDependencyOrder(initialized.snapshot(), this::terminateChild);
 		initialized.clear();
 		return success;
 	}
 	
 	@Override
 	public boolean isOperational() {
-		for (ServiceBase child : controllers) {
+		for (ServiceBase child : controllers.snapshot()) {
 			if (!child.isOperational()) {
 				Log.e("Child '%s' is no longer operational.", child.getClass().getName());
 				return false;
@@ -147,21 +228,142 @@ public class FXMLManager implements ServiceBase {
 	@Override
 	public void setIntentManager(IntentManager intentManager) {
 		this.intentManager.set(intentManager);
-		for (ServiceBase child : controllers) {
+		for (ServiceBase child : controllers.snapshot()) {
 			child.setIntentManager(intentManager);
 		}
 	}
 	
+	/**
+	 * Inflates the FXML file, then initializes and starts its controller on the calling thread. An exception thrown by
+	 * the controller is logged, and the controller is still returned
+	 * @param url the location of the FXML file
+	 * @return the controller of the root element
+	 */
 	protected Initializable loadFxml(@NotNull URL url) {
 		Initializable controller = createChild(url);
 		if (controller instanceof ServiceBase) {
 			ServiceBase service = (ServiceBase) controller;
-			initializeChild(service);
-			startChild(service);
+			initializeChild(service, false);
+			startChild(service, false);
 		}
 		return controller;
 	}
 	
+	/**
+	 * Returns the controller of a view inflated by this manager. A deferred view is inflated on the calling thread the
+	 * first time it is requested, then initialized and, if this manager is running, started on the FX thread
+	 */
+	@NotNull
+	Initializable getView(@NotNull URL url) {
+		String key = url.toExternalForm();
+		InflatedView view = views.get(key);
+		if (view != null)
+			return view.getController();
+		if (deferredUrls.stream().noneMatch(deferred -> deferred.toExternalForm().equals(key)))
+			throw new IllegalArgumentException("fxml is not registered: " + url);
+		InflatedView inflated = inflate(url);
+		return callOnFx("attach", url, () -> {
+			InflatedView attached = views.get(key);
+			if (attached == null) {
+				attachView(inflated);
+				views.put(key, inflated);
+				attached = inflated;
+			}
+			return attached.getController();
+		});
+	}
+	
+	/**
+	 * Returns a view that was released to the pool, or inflates a new one if there is none. Borrowed views are brought
+	 * up to the state of this manager the same way as deferred views, on the FX thread
+	 */
+	@NotNull
+	Initializable borrowView(@NotNull URL url) {
+		InflatedView pooled = viewPool.poll(url.toExternalForm());
+		InflatedView view;
+		if (pooled == null) {
+			view = inflate(url);
+			callOnFx("borrow", url, () -> {
+				attachView(view);
+				return null;
+			});
+		} else {
+			view = pooled;
+		}
+		viewPool.borrowed(view);
+		return view.getController();
+	}
+	
+	/**
+	 * Resets a borrowed view and returns it to the pool, on the FX thread. If the pool for its FXML file is full, its
+	 * controllers are stopped and terminated instead. The root node must have been removed from the scene graph
+	 */
+	void releaseView(@NotNull Initializable controller) {
+		InflatedView view = viewPool.returned(controller);
+		if (view == null)
+			throw new IllegalArgumentException("view was not borrowed: " + controller);
+		callOnFx("release", view.getUrl(), () -> {
+			try {
+				for (Object created : view.getControllers()) {
+					if (created instanceof FXMLPooledView)
+						((FXMLPooledView) created).reset();
+				}
+			} catch (Throwable t) {
+				Log.w("Caught exception while resetting %s, discarding it", controller.getClass().getName());
+				Log.w(t);
+				detachView(view);
+				return null;
+			}
+			if (!viewPool.offer(view))
+				detachView(view);
+			return null;
+		});
+	}
+	
+	/**
+	 * Reloads a single view from its FXML file, leaving every other view running. The new controllers are brought up to
+	 * the state of this manager, the new root node replaces the previous one in its parent or scene, and then the
+	 * controllers of the previous view are stopped and terminated. If the new view cannot be attached, the previous one
+	 * is kept. Does nothing if the view has not been inflated yet
+	 * @return TRUE if the view was reloaded or not inflated, FALSE otherwise
+	 */
+	boolean reinflate(@NotNull URL url) {
+		String key = url.toExternalForm();
+		if (!views.containsKey(key))
+			return true;
+		templates.invalidate(url);
+		InflatedView replacement;
+		try {
+			replacement = inflate(url);
+		} catch (Throwable t) {
+			Log.e("Failed to reload %s", url);
+			Log.e(t);
+			return false;
+		}
+		return await(runOnFx("reload", () -> {
+			InflatedView previous = views.get(key);
+			if (previous == null)
+				return true;
+			Runnable swap = rootReplacement(previous.getRoot(), replacement.getRoot());
+			if (swap == null) {
+				Log.w("Cannot reload %s, its root node is not in a scene, Pane, Group, BorderPane, ScrollPane, SplitPane or Tab", url);
+				return false;
+			}
+			try {
+				attachView(replacement);
+				swap.run();
+			} catch (Throwable t) {
+				Log.w("Failed to reload %s, keeping the previous view", url);
+				Log.w(t);
+				detachView(replacement);
+				return false;
+			}
+			boolean success = detachView(previous);
+			views.put(key, replacement);
+			return success;
+		}));
+	}
+	
 	void reinflate() {
 		stop();
 		terminate();
@@ -170,11 +372,29 @@ public class FXMLManager implements ServiceBase {
 	}
 	
 	void reinflate(Locale locale) {
-		this.locale.set(locale);
-		this.resourceBundle.updateAndGet(prev -> (prev==null||klass==null) ? null : ResourceBundle.getBundle("strings", this.locale.get(), klass.getClassLoader()));
+		setLocale(locale);
 		reinflate();
 	}
 	
+	/**
+	 * Switches the locale without reinflating any view. Only strings bound through {@link LocalizedStrings} change, all
+	 * within a single FX pulse
+	 */
+	void setLocale(@NotNull Locale locale) {
+		this.locale.set(locale);
+		if (resourceBundles != null)
+			this.resourceBundle.set(resourceBundles.get(resourceBundlePath, locale));
+		await(runOnFx("setLocale", () -> {
+			localizedStrings.update(resourceBundle.get());
+			return true;
+		}));
+	}
+	
+	@NotNull
+	LocalizedStrings getLocalizedStrings() {
+		return localizedStrings;
+	}
+	
 	@NotNull
 	Class<?> getKlass() {
 		return Objects.requireNonNull(klass, "klass not set");
@@ -200,60 +420,356 @@ public class FXMLManager implements ServiceBase {
 		return Objects.requireNonNull(FXMLApplication.getApplication(), "manager has not been initialized");
 	}
 	
+	private boolean initializeInflated(List<InflatedView> inflated) {
+		for (int i = 0; i < inflated.size(); i++) {
+			InflatedView view = inflated.get(i);
+			for (Object controller : view.getControllers())
+				addController(controller);
+			views.put(controllerUrls.get(i).toExternalForm(), view);
+		}
+		return initializeChildren();
+	}
+	
+	private boolean initializeChildren() {
+		for (Class<? extends ServiceBase> serviceClass : customServices) {
+			try {
+				ServiceBase service = construct(serviceClass);
+				setupChild(service);
+				addController(service);
+			} catch (ReflectiveOperationException e) {
+				Log.e(e);
+			}
+		}
+		controllers.sortByDependencies();
+		for (ServiceBase child : controllers.snapshot()) {
+			if (!initializeChild(child, true))
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Inflates each deferred view that has not been requested yet in the background, then attaches it on the FX thread
+	 */
+	private void preloadDeferred() {
+		for (URL url : deferredUrls) {
+			String key = url.toExternalForm();
+			if (!running.get() || Thread.currentThread().isInterrupted())
+				return;
+			if (views.containsKey(key))
+				continue;
+			try {
+				InflatedView inflated = inflate(url);
+				runOnFx("preload", () -> {
+					if (running.get() && !views.containsKey(key)) {
+						attachView(inflated);
+						views.put(key, inflated);
+					}
+					return null;
+				}).get();
+			} catch (InterruptedException e) {
+				return;
+			} catch (Throwable t) {
+				Log.w("Failed to preload %s", url);
+				Log.w(t);
+			}
+		}
+	}
+	
+	/**
+	 * Registers the controllers of a view inflated after initialize, and brings them up to the state of this manager
+	 */
+	private void attachView(InflatedView view) {
+		for (Object controller : view.getControllers()) {
+			addController(controller);
+			if (controller instanceof ServiceBase) {
+				ServiceBase service = (ServiceBase) controller;
+				if (initializeChild(service, false) && running.get())
+					startChild(service, false);
+			}
+		}
+	}
+	
+	/**
+	 * Stops, terminates and unregisters the controllers of a view, in the reverse order they were created
+	 */
+	private boolean detachView(InflatedView view) {
+		boolean success = true;
+		List<Object> created = view.getControllers();
+		for (int i = created.size() - 1; i >= 0; i--) {
+			if (!(created.get(i) instanceof ServiceBase))
+				continue;
+			ServiceBase service = (ServiceBase) created.get(i);
+			if (started.remove(service))
+				success &= stopChild(service);
+			if (initialized.remove(service))
+				success &= terminateChild(service);
+			controllers.remove(service);
+		}
+		return success;
+	}
+	
+	/**
+	 * Watches the directories of every view loaded from a file, and reloads a view whenever its file changes
+	 */
+	private void startWatching() {
+		Map<Path, URL> files = new HashMap<>();
+		for (URL url : controllerUrls)
+			putFile(files, url);
+		for (URL url : deferredUrls)
+			putFile(files, url);
+		if (files.isEmpty())
+			return;
+		try {
+			WatchService watcher = FileSystems.getDefault().newWatchService();
+			Set<Path> directories = new HashSet<>();
+			for (Path file : files.keySet()) {
+				if (directories.add(file.getParent()))
+					file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			}
+			watchService.set(watcher);
+			reloader.start();
+			reloader.execute(() -> watchFiles(watcher, files));
+		} catch (IOException e) {
+			Log.w("Failed to watch fxml files for changes");
+			Log.w(e);
+		}
+	}
+	
+	private void stopWatching() {
+		WatchService watcher = watchService.getAndSet(null);
+		if (watcher == null)
+			return;
+		try {
+			watcher.close();
+		} catch (IOException e) {
+			Log.w(e);
+		}
+		reloader.stop(true);
+		reloader.awaitTermination(1000);
+	}
+	
+	private void watchFiles(WatchService watcher, Map<Path, URL> files) {
+		try {
+			while (running.get()) {
+				WatchKey key = watcher.take();
+				// editors often write a file in several steps, so collect changes until the directory settles
+				Map<String, URL> changed = new LinkedHashMap<>();
+				while (key != null) {
+					Path directory = (Path) key.watchable();
+					for (WatchEvent<?> event : key.pollEvents()) {
+						if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+							continue;
+						URL url = files.get(directory.resolve((Path) event.context()));
+						if (url != null)
+							changed.put(url.toExternalForm(), url);
+					}
+					key.reset();
+					key = watcher.poll(50, TimeUnit.MILLISECONDS);
+				}
+				for (URL url : changed.values()) {
+					Log.i("Reloading %s", url);
+					reinflate(url);
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// stopped
+		}
+	}
+	
+	/**
+	 * Inflates every FXML file on a pool of background threads
+	 * @return a future completed with the inflated views, in the same order as the URLs
+	 */
+	private CompletableFuture<List<InflatedView>> inflateAll(List<URL> urls) {
+		AtomicInteger threadIndex = new AtomicInteger(0);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(inflationParallelism, urls.size())), r -> {
+			Thread thread = new Thread(r, "fxml-inflater-" + threadIndex.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+		List<CompletableFuture<InflatedView>> futures = new ArrayList<>(urls.size());
+		for (URL url : urls)
+			futures.add(CompletableFuture.supplyAsync(() -> inflate(url), executor));
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((ignored, t) -> {
+			executor.shutdownNow();
+			List<InflatedView> inflated = new ArrayList<>(futures.size());
+			for (CompletableFuture<InflatedView> future : futures)
+				inflated.add(future.join());
+			return inflated;
+		});
+	}
+	
+	/**
+	 * Runs the operation on every child after it has run on every child that depends on it. Independent children run
+	 * concurrently when the shutdown parallelism allows it
+	 */
+	private boolean runInReverseDependencyOrder(List<ServiceBase> children, Predicate<ServiceBase> operation) {
+		ExecutorService executor = null;
+		// services may hand work to the FX thread while stopping, so never block it waiting on the pool
+		if (shutdownParallelism > 1 && children.size() > 1 && !Platform.isFxApplicationThread()) {
+			AtomicInteger threadIndex = new AtomicInteger(0);
+			executor = Executors.newFixedThreadPool(Math.min(shutdownParallelism, children.size()), r -> {
+				Thread thread = new Thread(r, "fxml-shutdown-" + threadIndex.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		Executor runner = (executor == null) ? Runnable::run : executor;
+		try {
+			// children are in dependency order, so every dependent of a child comes after it
+			Map<ServiceBase, CompletableFuture<Boolean>> futures = new IdentityHashMap<>();
+			for (int i = children.size() - 1; i >= 0; i--) {
+				ServiceBase child = children.get(i);
+				List<CompletableFuture<Boolean>> dependents = new ArrayList<>();
+				for (int j = i + 1; j < children.size(); j++) {
+					if (dependsOn(children.get(j), child))
+						dependents.add(futures.get(children.get(j)));
+				}
+				CompletableFuture<Void> ready = CompletableFuture.allOf(dependents.toArray(new CompletableFuture<?>[0]));
+				futures.put(child, ready.thenApplyAsync(ignored -> operation.test(child), runner));
+			}
+			boolean success = true;
+			for (CompletableFuture<Boolean> future : futures.values())
+				success &= future.join();
+			return success;
+		} finally {
+			if (executor != null)
+				executor.shutdown();
+		}
+	}
+	
 	private Initializable createChild(URL url) {
+		InflatedView view = inflate(url);
+		for (Object controller : view.getControllers())
+			addController(controller);
+		return view.getController();
+	}
+	
+	/**
+	 * Loads the FXML file, or builds its compiled view if one is registered, without registering its controllers, so it
+	 * is safe to call from any thread
+	 */
+	private InflatedView inflate(URL url) {
+		Objects.requireNonNull(url, "url");
+		LifecycleMetrics.Measurement measurement = metrics.begin(Phase.INFLATE, url.toExternalForm());
 		try {
-			Objects.requireNonNull(url, "url");
+			List<Object> created = new ArrayList<>();
+			ResourceBundle resourceBundle = this.resourceBundle.get();
+			FXMLCompiledView compiledView = compiledViews.get(url.toExternalForm());
+			if (compiledView != null) {
+				Initializable controller = compiledView.build(url, resourceBundle, obj -> {
+					setupChild(obj);
+					created.add(obj);
+				});
+				Object root = (controller instanceof FXMLController) ? ((FXMLController) controller).getRoot() : null;
+				return new InflatedView(url, controller, root, created);
+			}
 			FXMLLoader fxmlLoader = new FXMLLoader(url);
 			fxmlLoader.setControllerFactory(param -> {
 				try {
-					Constructor<?> c = param.getConstructor();
-					Object obj = c.newInstance();
+					Object obj = construct(param);
 					setupChild(obj);
+					created.add(obj);
 					return obj;
-				} catch (NoSuchMethodException | IllegalAccessException | InstantiationException | InvocationTargetException e) {
+				} catch (ReflectiveOperationException e) {
 					throw new RuntimeException(e);
 				}
 			});
-			ResourceBundle resourceBundle = this.resourceBundle.get();
 			if (resourceBundle != null)
 				fxmlLoader.setResources(resourceBundle);
-			fxmlLoader.load();
-			return fxmlLoader.getController();
+			fxmlLoader.getNamespace().put(LocalizedStrings.NAMESPACE, localizedStrings.getStrings());
+			fxmlLoader.load(new ByteArrayInputStream(templates.getSource(url)));
+			return new InflatedView(url, fxmlLoader.getController(), fxmlLoader.getRoot(), created);
 		} catch (IOException e) {
 			throw new RuntimeException("Failed to load fxml: " + url, e);
+		} finally {
+			measurement.end();
 		}
 	}
 	
-	private void setupChild(Object controller) {
-		setupChild(controller, true);
+	private boolean stopChild(ServiceBase child) {
+		try {
+			Log.t("%s: Stopping %s...", getClass().getSimpleName(), child.getClass().getSimpleName());
+			if (!timed(Phase.STOP, child, child::stop)) {
+				Log.e(child.getClass().getSimpleName() + " failed to stop!");
+				return false;
+			}
+			return true;
+		} catch (Throwable t) {
+			Log.e("Caught exception during stop. Service: %s", child.getClass().getName());
+			Log.e(t);
+			return false;
+		}
 	}
 	
-	private void setupChild(Object controller, boolean addToControllers) {
+	private boolean terminateChild(ServiceBase child) {
+		try {
+			Log.t("%s: Terminating %s...", getClass().getSimpleName(), child.getClass().getSimpleName());
+			if (!timed(Phase.TERMINATE, child, child::terminate)) {
+				Log.e(child.getClass().getSimpleName() + " failed to terminate!");
+				return false;
+			}
+			return true;
+		} catch (Throwable t) {
+			Log.e("Caught exception during terminate. Service: %s", child.getClass().getName());
+			Log.e(t);
+			return false;
+		}
+	}
+	
+	private <T> T construct(Class<T> type) throws ReflectiveOperationException {
+		LifecycleMetrics.Measurement measurement = metrics.begin(Phase.CONSTRUCT, type.getName());
+		try {
+			return controllerFactory.create(type);
+		} finally {
+			measurement.end();
+		}
+	}
+	
+	private boolean timed(Phase phase, ServiceBase child, BooleanSupplier operation) {
+		LifecycleMetrics.Measurement measurement = metrics.begin(phase, child.getClass().getName());
+		try {
+			return operation.getAsBoolean();
+		} finally {
+			measurement.end();
+		}
+	}
+	
+	private void setupChild(Object controller) {
 		if (controller instanceof FXMLService)
 			((FXMLService) controller).setManager(this);
 		
 		if (controller instanceof Manager) {
 			for (ServiceBase child : ((Manager) controller).getChildren())
-				setupChild(child, false);
+				setupChild(child);
 		}
-		
-		if (addToControllers && controller instanceof ServiceBase) {
+	}
+	
+	private void addController(Object controller) {
+		if (controller instanceof ServiceBase) {
 			ServiceBase service = (ServiceBase) controller;
 			controllers.add(service);
 			service.setIntentManager(intentManager.get());
 		}
 	}
 	
-	private boolean initializeChild(ServiceBase child) {
+	/**
+	 * @param rethrow TRUE to rethrow an exception thrown by the child, for the futures of the lifecycle methods, FALSE to
+	 *                log it and return FALSE
+	 */
+	private boolean initializeChild(ServiceBase child, boolean rethrow) {
 		if (initialized.contains(child))
 			return true;
 		try {
 			Log.t("%s: Initializing %s...", getClass().getSimpleName(), child.getClass().getSimpleName());
-			if (!child.initialize()) {
+			if (!timed(Phase.INITIALIZE, child, child::initialize)) {
 				Log.e(child.getClass().getSimpleName() + " failed to initialize!");
 				return false;
 			}
 		} catch (Throwable t) {
+			if (rethrow)
+				throw new RuntimeException("Caught exception during initialize. Service: " + child.getClass().getName(), t);
 			Log.e("Caught exception during initialize. Service: %s", child.getClass().getName());
 			Log.e(t);
 			return false;
@@ -262,16 +778,22 @@ public class FXMLManager implements ServiceBase {
 		return true;
 	}
 	
-	private boolean startChild(ServiceBase child) {
+	/**
+	 * @param rethrow TRUE to rethrow an exception thrown by the child, for the futures of the lifecycle methods, FALSE to
+	 *                log it and return FALSE
+	 */
+	private boolean startChild(ServiceBase child, boolean rethrow) {
 		if (started.contains(child))
 			return true;
 		try {
 			Log.t("%s: Starting %s...", getClass().getSimpleName(), child.getClass().getSimpleName());
-			if (!child.start()) {
+			if (!timed(Phase.START, child, child::start)) {
 				Log.e(child.getClass().getSimpleName() + " failed to start!");
 				return false;
 			}
 		} catch (Throwable t) {
+			if (rethrow)
+				throw new RuntimeException("Caught exception during start. Service: " + child.getClass().getName(), t);
 			Log.e("Caught exception during start. Service: %s", child.getClass().getName());
 			Log.e(t);
 			return false;
@@ -284,38 +806,335 @@ public class FXMLManager implements ServiceBase {
 		return new FXMLManagerBuilder();
 	}
 	
-	private static boolean runOnFxAndWait(Supplier<Boolean> run) {
-		AtomicBoolean result = new AtomicBoolean(true);
-		boolean completed = runOnFxAndWait(() -> result.set(run.get()));
-		return completed && result.get();
+	private CompletableFuture<Boolean> withTimeout(CompletableFuture<Boolean> future) {
+		if (lifecycleTimeout == null)
+			return future;
+		return future.orTimeout(lifecycleTimeout.toNanos(), TimeUnit.NANOSECONDS);
 	}
 	
-	private static boolean runOnFxAndWait(Runnable run) {
-		Semaphore lock = new Semaphore(0);
-		Platform.runLater(() -> {
-			try {
-				run.run();
-			} finally {
-				lock.release(1);
-			}
-		});
+	/**
+	 * Waits for a lifecycle operation, logging any exception it completed with
+	 */
+	private static boolean await(CompletableFuture<Boolean> future) {
 		try {
-			lock.acquire(1);
-			return true;
+			return future.get();
 		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 			return false;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			while (cause instanceof CompletionException && cause.getCause() != null)
+				cause = cause.getCause();
+			Log.e(cause);
+			return false;
+		}
+	}
+	
+	/**
+	 * Runs the operation on the FX thread, directly if this is the FX thread
+	 */
+	private <T> CompletableFuture<T> runOnFx(String operation, Supplier<T> run) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		if (Platform.isFxApplicationThread()) {
+			complete(future, run);
+		} else {
+			LifecycleMetrics.Measurement wait = metrics.begin(Phase.FX_WAIT, operation);
+			Platform.runLater(() -> {
+				wait.end();
+				complete(future, run);
+			});
+		}
+		return future;
+	}
+	
+	/**
+	 * Runs part of a synchronous call on the FX thread and waits for it, rethrowing whatever it threw
+	 */
+	private <T> T callOnFx(String operation, URL url, Supplier<T> run) {
+		try {
+			return runOnFx(operation, run).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting to " + operation + " " + url, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException("failed to " + operation + " " + url, e.getCause());
+		}
+	}
+	
+	private static <T> void complete(CompletableFuture<T> future, Supplier<T> run) {
+		try {
+			future.complete(run.get());
+		} catch (Throwable t) {
+			future.completeExceptionally(t);
+		}
+	}
+	
+	/**
+	 * Finds where the root node of a view sits, and returns how to put the new root node of a reloaded view there while
+	 * keeping any layout constraints set on it
+	 * @return the replacement to run on the FX thread, or null if the previous root node cannot be replaced
+	 */
+	private static Runnable rootReplacement(Object previous, Object replacement) {
+		if (!(previous instanceof Node) || previous == replacement)
+			return () -> {};
+		if (!(replacement instanceof Node))
+			return null;
+		Node previousRoot = (Node) previous;
+		Node replacementRoot = (Node) replacement;
+		Runnable swap = findRootSlot(previousRoot, replacementRoot);
+		if (swap == null)
+			return null;
+		return () -> {
+			previousRoot.getProperties().forEach(replacementRoot.getProperties()::putIfAbsent);
+			swap.run();
+		};
+	}
+	
+	private static Runnable findRootSlot(Node previous, Node replacement) {
+		Scene scene = previous.getScene();
+		if (scene != null && scene.getRoot() == previous)
+			return (replacement instanceof Parent) ? () -> scene.setRoot((Parent) replacement) : null;
+		Parent parent = previous.getParent();
+		if (parent == null)
+			return () -> {};
+		// controls hold their content through properties, and the node itself sits inside their skin
+		for (Parent ancestor = parent; ancestor != null; ancestor = ancestor.getParent()) {
+			if (ancestor instanceof ScrollPane && ((ScrollPane) ancestor).getContent() == previous) {
+				ScrollPane scroll = (ScrollPane) ancestor;
+				return () -> scroll.setContent(replacement);
+			}
+			if (ancestor instanceof SplitPane && ((SplitPane) ancestor).getItems().contains(previous)) {
+				List<Node> items = ((SplitPane) ancestor).getItems();
+				return () -> replaceIn(items, previous, replacement);
+			}
+			if (ancestor instanceof TabPane) {
+				for (Tab tab : ((TabPane) ancestor).getTabs()) {
+					if (tab.getContent() == previous)
+						return () -> tab.setContent(replacement);
+				}
+			}
+		}
+		if (parent instanceof BorderPane) {
+			BorderPane border = (BorderPane) parent;
+			if (border.getCenter() == previous)
+				return () -> border.setCenter(replacement);
+			if (border.getTop() == previous)
+				return () -> border.setTop(replacement);
+			if (border.getBottom() == previous)
+				return () -> border.setBottom(replacement);
+			if (border.getLeft() == previous)
+				return () -> border.setLeft(replacement);
+			if (border.getRight() == previous)
+				return () -> border.setRight(replacement);
+			return null;
+		}
+		if (parent instanceof Pane)
+			return () -> replaceIn(((Pane) parent).getChildren(), previous, replacement);
+		if (parent instanceof Group)
+			return () -> replaceIn(((Group) parent).getChildren(), previous, replacement);
+		return null;
+	}
+	
+	private static void replaceIn(List<Node> nodes, Node previous, Node replacement) {
+		nodes.set(nodes.indexOf(previous), replacement);
+	}
+	
+	private static void putFile(Map<Path, URL> files, URL url) {
+		if (!"file".equals(url.getProtocol()))
+			return;
+		try {
+			files.put(Paths.get(url.toURI()).toAbsolutePath().normalize(), url);
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			Log.w("Cannot watch %s", url);
+		}
+	}
+	
+	/**
+	 * Returns whether the dependent declares a dependency that the dependency satisfies
+	 */
+	private static boolean dependsOn(ServiceBase dependent, ServiceBase dependency) {
+		DependsOn dependsOn = dependent.getClass().getAnnotation(DependsOn.class);
+		if (dependsOn == null || dependent == dependency)
+			return false;
+		for (Class<? extends ServiceBase> klass : dependsOn.value()) {
+			if (klass.isInstance(dependency))
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * An insertion-ordered set of children, compared by identity
+	 */
+	private static final class ServiceSet {
+		
+		private final Map<IdentityKey, ServiceBase> members;
+		
+		ServiceSet() {
+			this.members = new LinkedHashMap<>();
+		}
+		
+		synchronized boolean add(ServiceBase service) {
+			return members.putIfAbsent(new IdentityKey(service), service) == null;
+		}
+		
+		synchronized boolean remove(ServiceBase service) {
+			return members.remove(new IdentityKey(service)) != null;
 		}
+		
+		synchronized boolean contains(ServiceBase service) {
+			return members.containsKey(new IdentityKey(service));
+		}
+		
+		synchronized void clear() {
+			members.clear();
+		}
+		
+		synchronized List<ServiceBase> snapshot() {
+			return new ArrayList<>(members.values());
+		}
+		
+		/**
+		 * Reorders the children so that each one comes after its dependencies, otherwise keeping the insertion order
+		 */
+		synchronized void sortByDependencies() {
+			List<ServiceBase> remaining = new ArrayList<>(members.values());
+			List<ServiceBase> sorted = new ArrayList<>(remaining.size());
+			while (!remaining.isEmpty()) {
+				int next = -1;
+				for (int i = 0; i < remaining.size() && next == -1; i++) {
+					ServiceBase candidate = remaining.get(i);
+					if (remaining.stream().noneMatch(other -> dependsOn(candidate, other)))
+						next = i;
+				}
+				if (next == -1)
+					throw new IllegalStateException("Circular dependency between services: " + remaining);
+				sorted.add(remaining.remove(next));
+			}
+			members.clear();
+			for (ServiceBase service : sorted)
+				members.put(new IdentityKey(service), service);
+		}
+		
+	}
+	
+	private static final class IdentityKey {
+		
+		private final ServiceBase service;
+		
+		IdentityKey(ServiceBase service) {
+			this.service = service;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof IdentityKey && ((IdentityKey) o).service == service;
+		}
+		
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(service);
+		}
+		
+	}
+	
+	/**
+	 * Idle views by FXML file, and the views that are currently borrowed by their root controller
+	 */
+	private static final class ViewPool {
+		
+		private final int capacity;
+		private final Map<String, Deque<InflatedView>> idle;
+		private final Map<Initializable, InflatedView> borrowed;
+		
+		ViewPool(int capacity) {
+			this.capacity = capacity;
+			this.idle = new HashMap<>();
+			this.borrowed = new IdentityHashMap<>();
+		}
+		
+		synchronized InflatedView poll(String key) {
+			Deque<InflatedView> views = idle.get(key);
+			return (views == null) ? null : views.pollFirst();
+		}
+		
+		synchronized void borrowed(InflatedView view) {
+			borrowed.put(view.getController(), view);
+		}
+		
+		synchronized InflatedView returned(Initializable controller) {
+			return borrowed.remove(controller);
+		}
+		
+		synchronized boolean offer(InflatedView view) {
+			Deque<InflatedView> views = idle.computeIfAbsent(view.getUrl().toExternalForm(), k -> new ArrayDeque<>());
+			if (views.size() >= capacity)
+				return false;
+			views.addFirst(view);
+			return true;
+		}
+		
+		synchronized void clear() {
+			idle.clear();
+			borrowed.clear();
+		}
+		
+	}
+	
+	private static final class InflatedView {
+		
+		private final URL url;
+		private final Initializable controller;
+		private final Object root;
+		private final List<Object> controllers;
+		
+		InflatedView(URL url, Initializable controller, Object root, List<Object> controllers) {
+			this.url = url;
+			this.controller = controller;
+			this.root = root;
+			this.controllers = controllers;
+		}
+		
+		URL getUrl() {
+			return url;
+		}
+		
+		Initializable getController() {
+			return controller;
+		}
+		
+		Object getRoot() {
+			return root;
+		}
+		
+		List<Object> getControllers() {
+			return controllers;
+		}
+		
 	}
 	
 	public static final class FXMLManagerBuilder {
 		
 		private final List<URL> fxml = new ArrayList<>();
+		private final List<URL> deferredFxml = new ArrayList<>();
 		private final List<Class<? extends ServiceBase>> services = new ArrayList<>();
+		private final Map<String, FXMLCompiledView> compiledViews = new HashMap<>();
+		private final List<FXMLLifecycleListener> lifecycleListeners = new ArrayList<>();
+		private final List<Locale> preloadedLocales = new ArrayList<>();
+		private final Map<Class<?>, Supplier<?>> controllerFactories = new HashMap<>();
 		
 		private Class<?> klass = null;
 		private Locale locale = null;
 		private String resourceBundlePath = null;
 		private String [] args = new String[0];
+		private int inflationParallelism = 1;
+		private boolean preloadDeferred = false;
+		private Duration lifecycleTimeout = null;
+		private int shutdownParallelism = 1;
+		private boolean hotReload = false;
+		private int viewPoolSize = 4;
 		
 		private FXMLManagerBuilder() {
 			
@@ -334,12 +1153,77 @@ public class FXMLManager implements ServiceBase {
 			}
 		}
 		
+		/**
+		 * Adds a view that is not inflated during initialize, but the first time it is requested through
+		 * {@link FXMLService#getView(URL)}
+		 * @param url the location of the FXML file
+		 * @return this builder
+		 */
+		public FXMLManagerBuilder addDeferredFxml(URL url) {
+			deferredFxml.add(Objects.requireNonNull(url, "url"));
+			return this;
+		}
+		
+		public FXMLManagerBuilder addDeferredFxml(File file) {
+			try {
+				return addDeferredFxml(file.toURI().toURL());
+			} catch (MalformedURLException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		
+		/**
+		 * Sets whether deferred views are inflated in the background once the manager has started, so that they are
+		 * usually ready before they are first requested
+		 * @param preloadDeferred TRUE to preload deferred views, FALSE to only inflate them on request
+		 * @return this builder
+		 */
+		public FXMLManagerBuilder withPreloadDeferred(boolean preloadDeferred) {
+			this.preloadDeferred = preloadDeferred;
+			return this;
+		}
+		
+		/**
+		 * Registers a compiled view that is built instead of parsing the FXML file at the specified location, whenever
+		 * that file is inflated by this manager
+		 * @param url the location of the FXML file the view was compiled from
+		 * @param view the compiled view
+		 * @return this builder
+		 */
+		public FXMLManagerBuilder addCompiledView(URL url, FXMLCompiledView view) {
+			compiledViews.put(url.toExternalForm(), Objects.requireNonNull(view, "view"));
+			return this;
+		}
+		
 		public FXMLManagerBuilder addService(Class<? extends ServiceBase> klass) {
-			Arguments.validate(hasDefaultConstructor(klass), "service class must have a default constructor to allow instantiation");
+			Arguments.validate(controllerFactories.containsKey(klass) || hasDefaultConstructor(klass), "service class must have a default constructor or a factory to allow instantiation");
 			services.add(klass);
 			return this;
 		}
 		
+		/**
+		 * Adds a service that is created by the specified factory instead of its default constructor
+		 * @param klass the class of the service
+		 * @param factory creates a new instance of the service
+		 * @return this builder
+		 */
+		public <T extends ServiceBase> FXMLManagerBuilder addService(Class<T> klass, Supplier<? extends T> factory) {
+			withControllerFactory(klass, factory);
+			return addService(klass);
+		}
+		
+		/**
+		 * Registers a factory that creates every controller or service of the specified class, in place of its default
+		 * constructor. The factory must return a new instance of that class on each call
+		 * @param klass the class of the controller
+		 * @param factory creates a new instance of the controller
+		 * @return this builder
+		 */
+		public <T> FXMLManagerBuilder withControllerFactory(Class<T> klass, Supplier<? extends T> factory) {
+			controllerFactories.put(Objects.requireNonNull(klass, "klass"), Objects.requireNonNull(factory, "factory"));
+			return this;
+		}
+		
 		public FXMLManagerBuilder withKlass(Class<?> klass) {
 			this.klass = klass;
 			return this;
@@ -355,11 +1239,95 @@ public class FXMLManager implements ServiceBase {
 			return this;
 		}
 		
+		/**
+		 * Sets locales whose resource bundles are loaded in the background when the manager is built, so that switching
+		 * to them does not load the bundle. Has no effect unless a resource bundle path is set
+		 * @param locales the locales to preload
+		 * @return this builder
+		 */
+		public FXMLManagerBuilder withPreloadedLocales(Locale ... locales) {
+			for (Locale locale : locales)
+				preloadedLocales.add(Objects.requireNonNull(locale, "locale"));
+			return this;
+		}
+		
 		public FXMLManagerBuilder withArgs(String[] args) {
 			this.args = Objects.requireNonNull(args, "args cannot be null");
 			return this;
 		}
 		
+		/**
+		 * Sets the number of threads used to inflate the FXML files during initialize. With more than one thread, the
+		 * files are loaded in parallel off the FX thread, and only the controller lifecycle runs on the FX thread.
+		 * FXMLLoader calls {@link Initializable#initialize(URL, java.util.ResourceBundle)} while loading, so with more
+		 * than one thread the controllers of these files must not touch a live scene or any other FX-thread-only state
+		 * there, and should leave that to {@link ServiceBase#initialize()} or {@link ServiceBase#start()} instead
+		 * @param inflationParallelism the number of inflation threads, 1 to inflate everything on the FX thread
+		 * @return this builder
+		 */
+		public FXMLManagerBuilder withInflationParallelism(int inflationParallelism) {
+			Arguments.validate(inflationParallelism > 0, "inflationParallelism must be positive");
+			this.inflationParallelism = inflationParallelism;
+			return this;
+		}
+		
+		/**
+		 * Sets how long initialize and start may take before they fail. The FX thread work that timed out is not
+		 * interrupted
+		 * @param lifecycleTimeout the timeout, or null to wait indefinitely
+		 * @return this builder
+		 */
+		public FXMLManagerBuilder withLifecycleTimeout(Duration lifecycleTimeout) {
+			Arguments.validate(lifecycleTimeout == null || !lifecycleTimeout.isNegative(), "lifecycleTimeout cannot be negative");
+			this.lifecycleTimeout = lifecycleTimeout;
+			return this;
+		}
+		
+		/**
+		 * Sets the number of threads used to stop and terminate the children. Children that do not depend on one another
+		 * are stopped concurrently, while a child declaring {@link DependsOn} is always stopped before its dependencies
+		 * @param shutdownParallelism the number of threads, 1 to stop every child on the calling thread
+		 * @return this builder
+		 */
+		public FXMLManagerBuilder withShutdownParallelism(int shutdownParallelism) {
+			Arguments.validate(shutdownParallelism > 0, "shutdownParallelism must be positive");
+			this.shutdownParallelism = shutdownParallelism;
+			return this;
+		}
+		
+		/**
+		 * Sets whether views added as files are reloaded whenever their file changes, while the manager is running. Only
+		 * the changed view is reloaded; every other view keeps running
+		 * @param hotReload TRUE to watch the files for changes, FALSE otherwise
+		 * @return this builder
+		 */
+		public FXMLManagerBuilder withHotReload(boolean hotReload) {
+			this.hotReload = hotReload;
+			return this;
+		}
+		
+		/**
+		 * Sets how many released views are kept for reuse for each FXML file, see {@link FXMLService#borrowView(URL)}
+		 * @param viewPoolSize the number of idle views to keep per FXML file, 0 to never reuse a released view
+		 * @return this builder
+		 */
+		public FXMLManagerBuilder withViewPoolSize(int viewPoolSize) {
+			Arguments.validate(viewPoolSize >= 0, "viewPoolSize cannot be negative");
+			this.viewPoolSize = viewPoolSize;
+			return this;
+		}
+		
+		/**
+		 * Adds a listener that is told how long each inflation, controller construction and lifecycle call takes. The
+		 * same timings are recorded as JFR events when a flight recording is running
+		 * @param listener the listener
+		 * @return this builder
+		 */
+		public FXMLManagerBuilder addLifecycleListener(FXMLLifecycleListener listener) {
+			lifecycleListeners.add(Objects.requireNonNull(listener, "listener"));
+			return this;
+		}
+		
 		public FXMLManager build() {
 			return new FXMLManager(this);
 		}
@@ -368,10 +1336,18 @@ public class FXMLManager implements ServiceBase {
 			return fxml;
 		}
 		
+		private List<URL> getDeferredFxml() {
+			return deferredFxml;
+		}
+		
 		private List<Class<? extends ServiceBase>> getServices() {
 			return services;
 		}
 		
+		private Map<String, FXMLCompiledView> getCompiledViews() {
+			return compiledViews;
+		}
+		
 		private Class<?> getKlass() {
 			return klass;
 		}
@@ -384,10 +1360,46 @@ public class FXMLManager implements ServiceBase {
 			return resourceBundlePath;
 		}
 		
+		private Map<Class<?>, Supplier<?>> getControllerFactories() {
+			return controllerFactories;
+		}
+		
+		private List<Locale> getPreloadedLocales() {
+			return preloadedLocales;
+		}
+		
 		private String[] getArgs() {
 			return args;
 		}
 		
+		private int getInflationParallelism() {
+			return inflationParallelism;
+		}
+		
+		private boolean isPreloadDeferred() {
+			return preloadDeferred;
+		}
+		
+		private Duration getLifecycleTimeout() {
+			return lifecycleTimeout;
+		}
+		
+		private int getShutdownParallelism() {
+			return shutdownParallelism;
+		}
+		
+		private int getViewPoolSize() {
+			return viewPoolSize;
+		}
+		
+		private boolean isHotReload() {
+			return hotReload;
+		}
+		
+		private List<FXMLLifecycleListener> getLifecycleListeners() {
+			return lifecycleListeners;
+		}
+		
 		private static boolean hasDefaultConstructor(Class<? extends ServiceBase> klass) {
 			try {
 				return klass.getConstructor() != null;
@@ -0,0 +1,17 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import java.net.URL;
+
+/**
+ * A controller whose view can be reused after it is released with {@link FXMLService#releaseView(javafx.fxml.Initializable)},
+ * instead of inflating the FXML file again the next time it is borrowed with {@link FXMLService#borrowView(URL)}
+ */
+public interface FXMLPooledView {
+	
+	/**
+	 * Called on every controller of a released view that implements this interface, before the view is returned to the
+	 * pool. Must put the view back into the state it had right after it was inflated
+	 */
+	void reset();
+	
+}
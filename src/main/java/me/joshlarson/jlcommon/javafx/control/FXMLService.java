@@ -45,16 +45,81 @@ public abstract class FXMLService extends Service {
 		}
 	}
 	
+	@Unused(reason="API")
+	@SuppressWarnings("unchecked")
+	protected <T extends Initializable> T getView(URL url) {
+		return (T) getManager().getView(url);
+	}
+	
+	@Unused(reason="API")
+	@SuppressWarnings("unchecked")
+	protected <T extends Initializable> T getViewFromClassResource(String url) {
+		return (T) getManager().getView(getManager().getKlass().getResource(url));
+	}
+	
 	@Unused(reason="API")
 	protected void reinflate() {
 		getManager().reinflate();
 	}
 	
+	/**
+	 * Returns a view of the FXML file for a frequently opened dialog or popup. The view is reused from earlier calls if
+	 * one was released, otherwise it is inflated
+	 * @param url the location of the FXML file
+	 * @return the controller of the view
+	 */
+	@Unused(reason="API")
+	@SuppressWarnings("unchecked")
+	protected <T extends Initializable> T borrowView(URL url) {
+		return (T) getManager().borrowView(url);
+	}
+	
+	@Unused(reason="API")
+	@SuppressWarnings("unchecked")
+	protected <T extends Initializable> T borrowViewFromClassResource(String url) {
+		return (T) getManager().borrowView(getManager().getKlass().getResource(url));
+	}
+	
+	/**
+	 * Returns a view obtained from {@link #borrowView(URL)} so that it can be reused, after calling
+	 * {@link FXMLPooledView#reset()} on its controllers. Its root node must no longer be part of a scene graph
+	 * @param view the controller of the view
+	 */
+	@Unused(reason="API")
+	protected void releaseView(Initializable view) {
+		getManager().releaseView(view);
+	}
+	
+	/**
+	 * Reloads a single view from its FXML file, leaving every other view running
+	 * @param url the location of the view
+	 * @return TRUE if the view was reloaded, FALSE otherwise
+	 */
+	@Unused(reason="API")
+	protected boolean reinflate(URL url) {
+		return getManager().reinflate(url);
+	}
+	
 	@Unused(reason="API")
 	protected void reinflate(Locale locale) {
 		getManager().reinflate(locale);
 	}
 	
+	/**
+	 * Switches the locale without reinflating any view, updating every string bound through {@link LocalizedStrings}
+	 * @param locale the new locale
+	 */
+	@Unused(reason="API")
+	protected void setLocale(Locale locale) {
+		getManager().setLocale(locale);
+	}
+	
+	@NotNull
+	@Unused(reason="API")
+	protected LocalizedStrings getLocalizedStrings() {
+		return getManager().getLocalizedStrings();
+	}
+	
 	@NotNull
 	@Unused(reason="API")
 	protected ResourceBundle getResourceBundle() {
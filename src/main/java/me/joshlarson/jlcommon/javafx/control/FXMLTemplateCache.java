@@ -0,0 +1,97 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the contents of FXML files so that reinflating a view does not read it from disk or a jar again. FXMLLoader
+ * can only load from a stream, so the XML is still parsed on every load; a {@link FXMLCompiledView} avoids that.
+ * <p>
+ * Cached files are only re-read when they are invalidated, or, if modification checks are enabled for development,
+ * whenever a file on the local file system has a new modification time.
+ */
+final class FXMLTemplateCache {
+	
+	private final Map<String, Template> templates;
+	private final boolean checkModified;
+	
+	/**
+	 * @param checkModified TRUE to look up the modification time of local files on every load, FALSE otherwise
+	 */
+	FXMLTemplateCache(boolean checkModified) {
+		this.templates = new ConcurrentHashMap<>();
+		this.checkModified = checkModified;
+	}
+	
+	/**
+	 * Returns the contents of the specified FXML file, reading it only if it is not cached or has been modified
+	 * @param url the location of the FXML file
+	 * @return the contents of the file. The array must not be modified
+	 * @throws IOException if the file could not be read
+	 */
+	@NotNull
+	byte [] getSource(@NotNull URL url) throws IOException {
+		String key = url.toExternalForm(); // URL.equals and hashCode resolve hosts
+		Template template = templates.get(key);
+		if (template != null && !checkModified)
+			return template.getSource();
+		Path path = checkModified ? getPath(url) : null;
+		long lastModified = (path == null) ? -1 : Files.getLastModifiedTime(path).toMillis();
+		if (template != null && template.getLastModified() == lastModified)
+			return template.getSource();
+		byte [] source;
+		try (InputStream is = url.openStream()) {
+			source = is.readAllBytes();
+		}
+		templates.put(key, new Template(source, lastModified));
+		return source;
+	}
+	
+	/**
+	 * Removes the specified FXML file from the cache, so that it is read again the next time it is loaded
+	 * @param url the location of the FXML file
+	 */
+	void invalidate(@NotNull URL url) {
+		templates.remove(url.toExternalForm());
+	}
+	
+	private static Path getPath(URL url) {
+		if (!"file".equals(url.getProtocol()))
+			return null;
+		try {
+			return Paths.get(url.toURI());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+	
+	private static final class Template {
+		
+		private final byte [] source;
+		private final long lastModified;
+		
+		Template(byte [] source, long lastModified) {
+			this.source = source;
+			this.lastModified = lastModified;
+		}
+		
+		byte [] getSource() {
+			return source;
+		}
+		
+		long getLastModified() {
+			return lastModified;
+		}
+		
+	}
+	
+}
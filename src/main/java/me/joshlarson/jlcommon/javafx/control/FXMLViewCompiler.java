@@ -0,0 +1,522 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import javafx.beans.DefaultProperty;
+import org.jetbrains.annotations.NotNull;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.ProcessingInstruction;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Generates the Java source of a {@link FXMLCompiledView} from an FXML file, so that the view can be built without an
+ * XML parse or reflection at runtime. Run it from the build with {@link #main(String[])}, compile the generated classes
+ * with the controllers, and register them with
+ * {@link FXMLManager.FXMLManagerBuilder#addCompiledView(URL, FXMLCompiledView)}.
+ * <p>
+ * Only a subset of FXML is supported: imports, elements with a public no-argument constructor, attributes that set a
+ * property from a literal or a {@code %resource} key, child elements added to a property or the default property,
+ * {@code fx:id} and {@code fx:controller}. Anything else, such as expressions, event handlers, static properties and
+ * {@code fx:include}, is rejected with an {@link IllegalArgumentException}, and the file has to be loaded by an
+ * FXMLLoader instead.
+ * <p>
+ * The view is generated into the package of its controller and assigns each {@code fx:id} to the controller field of
+ * the same name directly, so those fields must not be private. Node classes are looked up with the class loader given
+ * to the compiler; controllers are not, and are only checked when the generated source is compiled.
+ */
+public final class FXMLViewCompiler {
+	
+	private static final String FX_NAMESPACE = "http://javafx.com/fxml";
+	
+	private final ClassLoader classLoader;
+	
+	public FXMLViewCompiler() {
+		this(FXMLViewCompiler.class.getClassLoader());
+	}
+	
+	/**
+	 * @param classLoader the class loader to look up the classes of the FXML elements with
+	 */
+	public FXMLViewCompiler(@NotNull ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+	
+	/**
+	 * Generates a compiled view for the specified FXML file. The class is named after the file, e.g. main-window.fxml
+	 * generates MainWindowCompiledView
+	 * @param fxml the location of the FXML file
+	 * @return the generated view
+	 * @throws IOException if the file could not be read or parsed
+	 * @throws IllegalArgumentException if the file uses FXML that is not supported
+	 */
+	@NotNull
+	public GeneratedView compile(@NotNull URL fxml) throws IOException {
+		String file = fxml.getPath().substring(fxml.getPath().lastIndexOf('/') + 1);
+		try (InputStream is = fxml.openStream()) {
+			return new Generator(file, parse(is)).generate(getClassName(file));
+		}
+	}
+	
+	/**
+	 * Generates the compiled views of FXML files into a source directory
+	 * @param args the source directory, followed by the FXML files
+	 * @throws IOException if a file could not be read or written
+	 */
+	public static void main(String [] args) throws IOException {
+		if (args.length < 1)
+			throw new IllegalArgumentException("Usage: FXMLViewCompiler <output directory> <fxml file>...");
+		FXMLViewCompiler compiler = new FXMLViewCompiler(Thread.currentThread().getContextClassLoader());
+		Path output = Paths.get(args[0]);
+		for (int i = 1; i < args.length; i++) {
+			GeneratedView view = compiler.compile(Paths.get(args[i]).toUri().toURL());
+			Path path = output.resolve(view.getQualifiedName().replace('.', '/') + ".java");
+			Files.createDirectories(path.getParent());
+			Files.writeString(path, view.getSource(), StandardCharsets.UTF_8);
+		}
+	}
+	
+	private static Document parse(InputStream is) throws IOException {
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+			factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			return factory.newDocumentBuilder().parse(is);
+		} catch (ParserConfigurationException | SAXException e) {
+			throw new IOException("Failed to parse fxml", e);
+		}
+	}
+	
+	private static String getClassName(String file) {
+		StringBuilder name = new StringBuilder();
+		int extension = file.lastIndexOf('.');
+		for (String part : (extension == -1 ? file : file.substring(0, extension)).split("[^A-Za-z0-9]+")) {
+			if (!part.isEmpty())
+				name.append(Character.toUpperCase(part.charAt(0))).append(part, 1, part.length());
+		}
+		if (name.length() == 0 || !Character.isJavaIdentifierStart(name.charAt(0)))
+			name.insert(0, '_');
+		return name.append("CompiledView").toString();
+	}
+	
+	/**
+	 * The source of a generated {@link FXMLCompiledView}
+	 */
+	public static final class GeneratedView {
+		
+		private final String qualifiedName;
+		private final String source;
+		
+		private GeneratedView(String qualifiedName, String source) {
+			this.qualifiedName = qualifiedName;
+			this.source = source;
+		}
+		
+		/**
+		 * Returns the fully qualified name of the generated class
+		 * @return the class name
+		 */
+		@NotNull
+		public String getQualifiedName() {
+			return qualifiedName;
+		}
+		
+		/**
+		 * Returns the Java source of the generated class
+		 * @return the source
+		 */
+		@NotNull
+		public String getSource() {
+			return source;
+		}
+		
+	}
+	
+	private final class Generator {
+		
+		private final String file;
+		private final Document document;
+		private final List<String> imports;
+		private final StringBuilder body;
+		private int nodes;
+		
+		Generator(String file, Document document) {
+			this.file = file;
+			this.document = document;
+			this.imports = new ArrayList<>();
+			this.body = new StringBuilder();
+			this.nodes = 0;
+		}
+		
+		GeneratedView generate(String className) {
+			for (Node child = document.getFirstChild(); child != null; child = child.getNextSibling()) {
+				if (child instanceof ProcessingInstruction)
+					addImport((ProcessingInstruction) child);
+			}
+			Element root = document.getDocumentElement();
+			String controller = getFxAttribute(root, "controller");
+			if (controller == null)
+				throw unsupported(root, "the root element has no fx:controller");
+			int packageEnd = controller.lastIndexOf('.');
+			line("%s controller = new %s();", controller, controller);
+			line("register.accept(controller);");
+			compileInstance(root);
+			line("controller.initialize(location, resources);");
+			line("return controller;");
+			
+			StringBuilder source = new StringBuilder();
+			source.append("// Generated by FXMLViewCompiler from ").append(file).append(", do not edit\n");
+			if (packageEnd != -1)
+				source.append("package ").append(controller, 0, packageEnd).append(";\n\n");
+			source.append("public final class ").append(className).append(" implements ").append(FXMLCompiledView.class.getCanonicalName()).append(" {\n");
+			source.append("\t\n");
+			source.append("\t@Override\n");
+			source.append("\tpublic javafx.fxml.Initializable build(java.net.URL location, java.util.ResourceBundle resources, java.util.function.Consumer<Object> register) {\n");
+			source.append(body);
+			source.append("\t}\n");
+			source.append("\t\n");
+			source.append("}\n");
+			return new GeneratedView(packageEnd == -1 ? className : controller.substring(0, packageEnd + 1) + className, source.toString());
+		}
+		
+		private void addImport(ProcessingInstruction instruction) {
+			if (!instruction.getTarget().equals("import"))
+				throw new IllegalArgumentException(file + ": unsupported processing instruction <?" + instruction.getTarget() + "?>");
+			imports.add(instruction.getData().trim());
+		}
+		
+		/**
+		 * Generates the code that constructs the element and sets its properties and children
+		 * @return the variable holding the constructed node
+		 */
+		private Variable compileInstance(Element element) {
+			Class<?> type = resolve(element);
+			if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers()) || !hasDefaultConstructor(type))
+				throw unsupported(element, type.getName() + " has no public no-argument constructor");
+			Variable node = new Variable("node" + nodes++, type);
+			line("%s %s = new %s();", type.getCanonicalName(), node.name, type.getCanonicalName());
+			NamedNodeMap attributes = element.getAttributes();
+			for (int i = 0; i < attributes.getLength(); i++) {
+				Attr attribute = (Attr) attributes.item(i);
+				String namespace = attribute.getNamespaceURI();
+				if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(namespace))
+					continue;
+				if (isFxNamespace(namespace))
+					compileFxAttribute(element, node, attribute);
+				else if (namespace != null || attribute.getName().indexOf('.') != -1)
+					throw unsupported(element, "static or namespaced property " + attribute.getName());
+				else
+					compileProperty(element, node, attribute.getName(), attribute.getValue());
+			}
+			String defaultProperty = null;
+			for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+				if (child instanceof Element) {
+					Element childElement = (Element) child;
+					if (isPropertyElement(childElement)) {
+						compilePropertyElement(node, childElement);
+					} else {
+						if (defaultProperty == null)
+							defaultProperty = getDefaultProperty(element, type);
+						addChild(element, node, defaultProperty, compileInstance(childElement));
+					}
+				} else if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+					if (!child.getNodeValue().isBlank())
+						throw unsupported(element, "text content");
+				} else if (child.getNodeType() != Node.COMMENT_NODE) {
+					throw unsupported(element, "child node " + child.getNodeName());
+				}
+			}
+			return node;
+		}
+		
+		private void compileFxAttribute(Element element, Variable node, Attr attribute) {
+			switch (attribute.getLocalName()) {
+				case "controller":
+					if (element != document.getDocumentElement())
+						throw unsupported(element, "fx:controller on a nested element");
+					break;
+				case "id":
+					line("controller.%s = %s;", identifier(element, attribute.getValue()), node.name);
+					break;
+				default:
+					throw unsupported(element, "fx:" + attribute.getLocalName());
+			}
+		}
+		
+		private void compilePropertyElement(Variable node, Element element) {
+			String property = element.getLocalName();
+			if (element.getAttributes().getLength() > 0)
+				throw unsupported(element, "attributes on a property element");
+			List<Variable> children = new ArrayList<>();
+			StringBuilder text = new StringBuilder();
+			for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+				if (child instanceof Element)
+					children.add(compileInstance((Element) child));
+				else if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE)
+					text.append(child.getNodeValue());
+				else if (child.getNodeType() != Node.COMMENT_NODE)
+					throw unsupported(element, "child node " + child.getNodeName());
+			}
+			if (children.isEmpty()) {
+				compileProperty(element, node, property, text.toString().trim());
+				return;
+			}
+			if (!text.toString().isBlank())
+				throw unsupported(element, "text mixed with elements");
+			for (Variable child : children)
+				addChild(element, node, property, child);
+		}
+		
+		private void compileProperty(Element element, Variable node, String property, String value) {
+			if (value.startsWith("$") || value.startsWith("#") || value.startsWith("@"))
+				throw unsupported(element, "attribute value " + value + " of " + property);
+			Method setter = findSetter(node.type, property);
+			if (setter == null) {
+				Method getter = findGetter(node.type, property);
+				if (getter != null && List.class.isAssignableFrom(getter.getReturnType()) && isStringList(getter.getGenericReturnType())) {
+					StringBuilder values = new StringBuilder();
+					for (String item : value.split(",")) {
+						if (values.length() > 0)
+							values.append(", ");
+						values.append(literal(item.trim()));
+					}
+					line("%s.%s().addAll(%s);", node.name, getter.getName(), values);
+					return;
+				}
+				throw unsupported(element, "no writable property " + property + " on " + node.type.getName());
+			}
+			line("%s.%s(%s);", node.name, setter.getName(), coerce(element, property, setter.getParameterTypes()[0], value));
+		}
+		
+		private void addChild(Element element, Variable node, String property, Variable child) {
+			Method getter = findGetter(node.type, property);
+			if (getter != null && Collection.class.isAssignableFrom(getter.getReturnType())) {
+				line("%s.%s().add(%s);", node.name, getter.getName(), child.name);
+				return;
+			}
+			Method setter = findSetter(node.type, property);
+			if (setter == null || !setter.getParameterTypes()[0].isAssignableFrom(child.type))
+				throw unsupported(element, "cannot add " + child.type.getName() + " to property " + property);
+			line("%s.%s(%s);", node.name, setter.getName(), child.name);
+		}
+		
+		private String coerce(Element element, String property, Class<?> type, String value) {
+			if (value.startsWith("%")) {
+				if (!type.isAssignableFrom(String.class))
+					throw unsupported(element, "resource key for non-string property " + property);
+				return "resources.getString(" + literal(value.substring(1)) + ")";
+			}
+			if (value.startsWith("\\"))
+				value = value.substring(1);
+			try {
+				if (type.isAssignableFrom(String.class))
+					return literal(value);
+				if (type == boolean.class || type == Boolean.class)
+					return Boolean.toString(Boolean.parseBoolean(value));
+				if (type == int.class || type == Integer.class)
+					return Integer.toString(Integer.parseInt(value));
+				if (type == long.class || type == Long.class)
+					return Long.parseLong(value) + "L";
+				if (type == double.class || type == Double.class)
+					return finite(element, property, Double.parseDouble(value)) + "d";
+				if (type == float.class || type == Float.class)
+					return finite(element, property, Float.parseFloat(value)) + "f";
+			} catch (NumberFormatException e) {
+				throw unsupported(element, "value " + value + " of " + property + " is not a " + type.getSimpleName());
+			}
+			if (type.isEnum()) {
+				for (String constant : new String[]{value, value.toUpperCase()}) {
+					try {
+						if (type.getField(constant).isEnumConstant())
+							return type.getCanonicalName() + "." + constant;
+					} catch (NoSuchFieldException e) {
+						// try the next spelling
+					}
+				}
+				throw unsupported(element, "value " + value + " of " + property + " is not a constant of " + type.getName());
+			}
+			try {
+				Method valueOf = type.getMethod("valueOf", String.class);
+				if (Modifier.isStatic(valueOf.getModifiers()) && type.isAssignableFrom(valueOf.getReturnType()))
+					return type.getCanonicalName() + ".valueOf(" + literal(value) + ")";
+			} catch (NoSuchMethodException e) {
+				// fall through and reject
+			}
+			throw unsupported(element, "cannot convert a string to " + type.getName() + " for " + property);
+		}
+		
+		private String finite(Element element, String property, double value) {
+			if (!Double.isFinite(value))
+				throw unsupported(element, "value " + value + " of " + property);
+			return Double.toString(value);
+		}
+		
+		private Class<?> resolve(Element element) {
+			if (element.getNamespaceURI() != null)
+				throw unsupported(element, "element " + element.getTagName());
+			String name = element.getTagName();
+			if (name.indexOf('.') != -1)
+				return load(element, name);
+			for (String candidate : imports) {
+				if (candidate.endsWith("." + name))
+					return load(element, candidate);
+			}
+			for (String candidate : imports) {
+				if (!candidate.endsWith(".*"))
+					continue;
+				try {
+					return Class.forName(candidate.substring(0, candidate.length() - 1) + name, false, classLoader);
+				} catch (ClassNotFoundException e) {
+					// try the next import
+				}
+			}
+			throw unsupported(element, "class " + name + " is not imported or not on the class path");
+		}
+		
+		private Class<?> load(Element element, String name) {
+			try {
+				return Class.forName(name, false, classLoader);
+			} catch (ClassNotFoundException e) {
+				throw unsupported(element, "class " + name + " is not on the class path");
+			}
+		}
+		
+		private String getDefaultProperty(Element element, Class<?> type) {
+			for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+				DefaultProperty defaultProperty = c.getAnnotation(DefaultProperty.class);
+				if (defaultProperty != null)
+					return defaultProperty.value();
+			}
+			throw unsupported(element, type.getName() + " has no default property");
+		}
+		
+		private String identifier(Element element, String name) {
+			if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)) || !name.chars().allMatch(Character::isJavaIdentifierPart))
+				throw unsupported(element, "fx:id " + name + " is not a Java identifier");
+			return name;
+		}
+		
+		private IllegalArgumentException unsupported(Element element, String construct) {
+			return new IllegalArgumentException(file + ": <" + element.getTagName() + ">: unsupported FXML: " + construct);
+		}
+		
+		private void line(String format, Object ... args) {
+			body.append("\t\t").append(String.format(format, args)).append('\n');
+		}
+		
+	}
+	
+	private static final class Variable {
+		
+		private final String name;
+		private final Class<?> type;
+		
+		Variable(String name, Class<?> type) {
+			this.name = name;
+			this.type = type;
+		}
+		
+	}
+	
+	private static String getFxAttribute(Element element, String name) {
+		NamedNodeMap attributes = element.getAttributes();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			Attr attribute = (Attr) attributes.item(i);
+			if (isFxNamespace(attribute.getNamespaceURI()) && attribute.getLocalName().equals(name))
+				return attribute.getValue();
+		}
+		return null;
+	}
+	
+	private static boolean isFxNamespace(String namespace) {
+		return namespace != null && namespace.startsWith(FX_NAMESPACE); // also versioned, e.g. http://javafx.com/fxml/1
+	}
+	
+	private static boolean isPropertyElement(Element element) {
+		String name = element.getLocalName();
+		return element.getNamespaceURI() == null && name.indexOf('.') == -1 && Character.isLowerCase(name.charAt(0));
+	}
+	
+	private static boolean hasDefaultConstructor(Class<?> type) {
+		try {
+			type.getConstructor();
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+	
+	private static boolean isStringList(Type type) {
+		return type instanceof ParameterizedType && ((ParameterizedType) type).getActualTypeArguments()[0] == String.class;
+	}
+	
+	private static Method findSetter(Class<?> type, String property) {
+		Method match = null;
+		for (Method method : type.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1 || !method.getName().equals("set" + capitalize(property)))
+				continue;
+			if (match == null || method.getParameterTypes()[0] == String.class)
+				match = method;
+		}
+		return match;
+	}
+	
+	private static Method findGetter(Class<?> type, String property) {
+		for (String prefix : new String[]{"get", "is"}) {
+			try {
+				Method method = type.getMethod(prefix + capitalize(property));
+				if (!Modifier.isStatic(method.getModifiers()))
+					return method;
+			} catch (NoSuchMethodException e) {
+				// try the next prefix
+			}
+		}
+		return null;
+	}
+	
+	private static String capitalize(String property) {
+		return property.isEmpty() ? property : Character.toUpperCase(property.charAt(0)) + property.substring(1);
+	}
+	
+	private static String literal(String value) {
+		StringBuilder literal = new StringBuilder("\"");
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':  literal.append("\\\""); break;
+				case '\\': literal.append("\\\\"); break;
+				case '\n': literal.append("\\n"); break;
+				case '\r': literal.append("\\r"); break;
+				case '\t': literal.append("\\t"); break;
+				default:
+					if (c < 0x20 || c > 0x7E)
+						literal.append(String.format("\\u%04x", (int) c));
+					else
+						literal.append(c);
+					break;
+			}
+		}
+		return literal.append('"').toString();
+	}
+	
+}
@@ -0,0 +1,160 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import javafx.application.Platform;
+import me.joshlarson.jlcommon.control.Service;
+import me.joshlarson.jlcommon.log.Log;
+import me.joshlarson.jlcommon.utilities.Arguments;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Monitors the responsiveness of the FX thread. While running, a heartbeat is posted to the FX thread at a fixed
+ * interval and the time it waits before running is recorded in a {@link LatencyHistogram}. When a heartbeat waits
+ * longer than the stall threshold, the stack of the FX thread is captured, logged and passed to every
+ * {@link StallListener}, once per stall.
+ * <p>
+ * Can be added to an {@link FXMLManager} with {@link FXMLManager.FXMLManagerBuilder#addService(Class)}, which uses a
+ * 100ms interval and a 1s threshold.
+ */
+public class FXWatchdog extends Service {
+	
+	private final Duration interval;
+	private final Duration stallThreshold;
+	private final LatencyHistogram latency;
+	private final List<StallListener> stallListeners;
+	private final AtomicReference<Heartbeat> pending;
+	private final AtomicReference<ScheduledExecutorService> executor;
+	private volatile Thread fxThread;
+	
+	public FXWatchdog() {
+		this(Duration.ofMillis(100), Duration.ofSeconds(1));
+	}
+	
+	public FXWatchdog(@NotNull Duration interval, @NotNull Duration stallThreshold) {
+		Arguments.validate(!interval.isNegative() && !interval.isZero(), "interval must be positive");
+		Arguments.validate(!stallThreshold.isNegative() && !stallThreshold.isZero(), "stallThreshold must be positive");
+		this.interval = interval;
+		this.stallThreshold = stallThreshold;
+		this.latency = new LatencyHistogram();
+		this.stallListeners = new CopyOnWriteArrayList<>();
+		this.pending = new AtomicReference<>(null);
+		this.executor = new AtomicReference<>(null);
+		this.fxThread = null;
+	}
+	
+	@Override
+	public boolean start() {
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "jlcommon-fx-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+		ScheduledExecutorService prev = this.executor.getAndSet(executor);
+		if (prev != null)
+			prev.shutdownNow();
+		pending.set(null);
+		executor.scheduleAtFixedRate(this::tick, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+		return super.start();
+	}
+	
+	@Override
+	public boolean stop() {
+		ScheduledExecutorService executor = this.executor.getAndSet(null);
+		if (executor != null)
+			executor.shutdownNow();
+		return super.stop();
+	}
+	
+	/**
+	 * Returns how long each heartbeat waited for the FX thread
+	 * @return the latency histogram
+	 */
+	@NotNull
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+	
+	public void addStallListener(@NotNull StallListener listener) {
+		stallListeners.add(listener);
+	}
+	
+	public boolean removeStallListener(@NotNull StallListener listener) {
+		return stallListeners.remove(listener);
+	}
+	
+	private void tick() {
+		long now = System.nanoTime();
+		Heartbeat heartbeat = pending.get();
+		if (heartbeat == null) {
+			Heartbeat next = new Heartbeat(now);
+			pending.set(next);
+			Platform.runLater(() -> {
+				fxThread = Thread.currentThread();
+				latency.record(System.nanoTime() - next.getPosted());
+				pending.compareAndSet(next, null);
+			});
+		} else if (!heartbeat.isReported() && now - heartbeat.getPosted() >= stallThreshold.toNanos()) {
+			heartbeat.setReported();
+			reportStall(Duration.ofNanos(now - heartbeat.getPosted()));
+		}
+	}
+	
+	private void reportStall(Duration stalled) {
+		Thread fxThread = this.fxThread;
+		StackTraceElement [] stack = (fxThread == null) ? new StackTraceElement[0] : fxThread.getStackTrace();
+		StringBuilder trace = new StringBuilder();
+		for (StackTraceElement element : stack)
+			trace.append("\n\tat ").append(element);
+		Log.w("FX thread has not responded for %dms%s", stalled.toMillis(), trace);
+		for (StallListener listener : stallListeners) {
+			try {
+				listener.onStall(stalled, stack);
+			} catch (Throwable t) {
+				Log.w(t);
+			}
+		}
+	}
+	
+	private static final class Heartbeat {
+		
+		private final long posted;
+		private volatile boolean reported;
+		
+		Heartbeat(long posted) {
+			this.posted = posted;
+			this.reported = false;
+		}
+		
+		long getPosted() {
+			return posted;
+		}
+		
+		boolean isReported() {
+			return reported;
+		}
+		
+		void setReported() {
+			this.reported = true;
+		}
+		
+	}
+	
+	public interface StallListener {
+		
+		/**
+		 * Called from the watchdog thread when the FX thread has been blocked for longer than the stall threshold
+		 * @param stalled how long the FX thread has been blocked so far
+		 * @param fxStack the stack of the FX thread when the stall was detected, empty if it is not known yet
+		 */
+		void onStall(@NotNull Duration stalled, @NotNull StackTraceElement [] fxStack);
+		
+	}
+	
+}
@@ -0,0 +1,101 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies. Bucket {@code i} counts latencies below {@code 2^i} microseconds, and the last
+ * bucket counts everything longer than the second to last.
+ */
+public final class LatencyHistogram {
+	
+	private static final int BUCKETS = 27; // the last bound is 2^25us, about 33 seconds
+	
+	private final AtomicLongArray buckets;
+	private final AtomicLong count;
+	private final AtomicLong max;
+	
+	public LatencyHistogram() {
+		this.buckets = new AtomicLongArray(BUCKETS);
+		this.count = new AtomicLong(0);
+		this.max = new AtomicLong(0);
+	}
+	
+	public void record(@NotNull Duration latency) {
+		record(latency.toNanos());
+	}
+	
+	public void record(long latencyNanos) {
+		long micros = Math.max(0, latencyNanos / 1000);
+		int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+		buckets.incrementAndGet(bucket);
+		count.incrementAndGet();
+		max.accumulateAndGet(latencyNanos, Math::max);
+	}
+	
+	public long getCount() {
+		return count.get();
+	}
+	
+	@NotNull
+	public Duration getMax() {
+		return Duration.ofNanos(max.get());
+	}
+	
+	/**
+	 * Returns an upper bound for the specified percentile, which is the upper bound of the bucket it falls in
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the upper bound, or zero if nothing was recorded
+	 */
+	@NotNull
+	public Duration getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100)
+			throw new IllegalArgumentException("percentile must be between 0 and 100");
+		long [] counts = getBucketCounts();
+		long total = 0;
+		for (long bucketCount : counts)
+			total += bucketCount;
+		if (total == 0)
+			return Duration.ZERO;
+		long rank = (long) Math.ceil(total * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < counts.length - 1; i++) {
+			seen += counts[i];
+			if (seen >= rank && seen > 0)
+				return getBucketUpperBound(i);
+		}
+		return getMax();
+	}
+	
+	/**
+	 * Returns the exclusive upper bound of a bucket. The last bucket has no upper bound, and returns the longest latency
+	 * recorded
+	 * @param bucket the bucket index
+	 * @return the upper bound
+	 */
+	@NotNull
+	public Duration getBucketUpperBound(int bucket) {
+		if (bucket == BUCKETS - 1)
+			return getMax();
+		return Duration.ofNanos((1L << bucket) * 1000);
+	}
+	
+	@NotNull
+	public long [] getBucketCounts() {
+		long [] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++)
+			counts[i] = buckets.get(i);
+		return counts;
+	}
+	
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			buckets.set(i, 0);
+		count.set(0);
+		max.set(0);
+	}
+	
+}
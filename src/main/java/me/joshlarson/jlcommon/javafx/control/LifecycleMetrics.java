@@ -0,0 +1,68 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import me.joshlarson.jlcommon.javafx.control.FXMLLifecycleListener.Phase;
+import me.joshlarson.jlcommon.log.Log;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Times lifecycle phases, reporting them to the registered listeners and, if the jdk.jfr module is present, as
+ * {@link FXMLLifecycleEvent}s
+ */
+final class LifecycleMetrics {
+	
+	// jdk.jfr is an optional dependency, so it is only read if it was resolved at startup
+	private static final boolean JFR_PRESENT = ModuleLayer.boot().findModule("jdk.jfr").map(LifecycleMetrics.class.getModule()::canRead).orElse(false);
+	
+	private final List<FXMLLifecycleListener> listeners;
+	
+	LifecycleMetrics(List<FXMLLifecycleListener> listeners) {
+		this.listeners = List.copyOf(listeners);
+	}
+	
+	@NotNull
+	Measurement begin(@NotNull Phase phase, @NotNull String subject) {
+		return new Measurement(phase, subject);
+	}
+	
+	final class Measurement {
+		
+		private final Phase phase;
+		private final String subject;
+		private final FXMLLifecycleEvent event;
+		private final long start;
+		
+		private Measurement(Phase phase, String subject) {
+			this.phase = phase;
+			this.subject = subject;
+			this.event = JFR_PRESENT ? new FXMLLifecycleEvent() : null;
+			if (event != null)
+				event.begin();
+			this.start = System.nanoTime();
+		}
+		
+		void end() {
+			Duration duration = Duration.ofNanos(System.nanoTime() - start);
+			if (event != null) {
+				event.end();
+				if (event.shouldCommit()) {
+					event.phase = phase.name();
+					event.subject = subject;
+					event.commit();
+				}
+			}
+			for (FXMLLifecycleListener listener : listeners) {
+				try {
+					listener.onPhaseCompleted(phase, subject, duration);
+				} catch (Throwable t) {
+					Log.w("Lifecycle listener %s threw an exception", listener.getClass().getName());
+					Log.w(t);
+				}
+			}
+		}
+		
+	}
+	
+}
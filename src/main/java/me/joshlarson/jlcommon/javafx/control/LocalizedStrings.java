@@ -0,0 +1,85 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
+import me.joshlarson.jlcommon.javafx.beans.ConcurrentString;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The strings of the current resource bundle, as observable values that follow locale switches. Every FXML file
+ * inflated by a {@link FXMLManager} can bind to them through the {@value #NAMESPACE} namespace, for example
+ * {@code text="${i18n.mylabel}"}, unlike {@code %mylabel} which is only resolved when the view is inflated
+ */
+public final class LocalizedStrings {
+	
+	/** The name the strings are available under in FXML expressions */
+	public static final String NAMESPACE = "i18n";
+	
+	private final ObservableMap<String, String> strings;
+	private final Map<String, ConcurrentString> properties;
+	private ResourceBundle resourceBundle;
+	
+	LocalizedStrings() {
+		this.strings = FXCollections.synchronizedObservableMap(FXCollections.observableHashMap());
+		this.properties = new ConcurrentHashMap<>();
+		this.resourceBundle = null;
+	}
+	
+	/**
+	 * Returns the strings of the current resource bundle by key. The map is only modified on the FX thread
+	 */
+	@NotNull
+	public ObservableMap<String, String> getStrings() {
+		return FXCollections.unmodifiableObservableMap(strings);
+	}
+	
+	/**
+	 * Returns the string of the current resource bundle with the specified key
+	 * @param key the key
+	 * @return the string, or the key itself if the current resource bundle does not contain it
+	 */
+	@NotNull
+	public String getString(@NotNull String key) {
+		String value = strings.get(key);
+		return (value == null) ? key : value;
+	}
+	
+	/**
+	 * Returns a property holding the string with the specified key, which is updated on the FX thread whenever the
+	 * locale is switched. Repeated calls return the same property
+	 * @param key the key
+	 * @return the property
+	 */
+	@NotNull
+	public ConcurrentString getProperty(@NotNull String key) {
+		return properties.computeIfAbsent(key, k -> new ConcurrentString(getString(k)));
+	}
+	
+	/**
+	 * Replaces every string with the one from the specified bundle. Must be called on the FX thread, so that every bound
+	 * property changes within a single pulse
+	 */
+	synchronized void update(ResourceBundle resourceBundle) {
+		if (resourceBundle == null || resourceBundle == this.resourceBundle)
+			return;
+		this.resourceBundle = resourceBundle;
+		Map<String, String> next = new HashMap<>();
+		for (String key : resourceBundle.keySet()) {
+			try {
+				next.put(key, resourceBundle.getString(key));
+			} catch (ClassCastException | MissingResourceException e) {
+				// not a string
+			}
+		}
+		strings.keySet().retainAll(next.keySet());
+		strings.putAll(next);
+		properties.forEach((key, property) -> property.set(getString(key)));
+	}
+	
+}
@@ -0,0 +1,90 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches resource bundles by path and locale, so that switching to a locale that was used or preloaded before does
+ * not look up and parse its bundle again
+ */
+final class ResourceBundleCache {
+	
+	// bundle lookups block on class loading and I/O, so they are kept off the common pool
+	private static final ExecutorService PRELOADER = new ThreadPoolExecutor(0, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+		Thread thread = new Thread(r, "jlcommon-fx-bundle-preloader");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private final Module module;
+	private final Map<String, CompletableFuture<ResourceBundle>> bundles;
+	
+	ResourceBundleCache(@NotNull Module module) {
+		this.module = module;
+		this.bundles = new ConcurrentHashMap<>();
+	}
+	
+	/**
+	 * Returns the bundle for the specified path and locale, loading it if it is not cached. If the bundle is being
+	 * preloaded, waits for it instead of loading it again
+	 * @param path the base name of the bundle
+	 * @param locale the locale
+	 * @return the bundle
+	 * @throws java.util.MissingResourceException if no bundle could be found
+	 */
+	@NotNull
+	ResourceBundle get(@NotNull String path, @NotNull Locale locale) {
+		CompletableFuture<ResourceBundle> bundle = bundles.computeIfAbsent(getKey(path, locale), k -> new CompletableFuture<>());
+		if (!bundle.isDone())
+			load(bundle, path, locale);
+		try {
+			return bundle.join();
+		} catch (CompletionException e) {
+			bundles.remove(getKey(path, locale), bundle);
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Loads the bundles for the specified path and locales in the background, one at a time on a daemon thread
+	 * @param path the base name of the bundles
+	 * @param locales the locales to load
+	 */
+	void preload(@NotNull String path, @NotNull Collection<Locale> locales) {
+		for (Locale locale : locales) {
+			CompletableFuture<ResourceBundle> bundle = bundles.computeIfAbsent(getKey(path, locale), k -> new CompletableFuture<>());
+			if (!bundle.isDone())
+				PRELOADER.execute(() -> load(bundle, path, locale));
+		}
+	}
+	
+	private void load(CompletableFuture<ResourceBundle> bundle, String path, Locale locale) {
+		synchronized (bundle) {
+			if (bundle.isDone())
+				return;
+			try {
+				bundle.complete(ResourceBundle.getBundle(path, locale, module));
+			} catch (Throwable t) {
+				bundle.completeExceptionally(t);
+			}
+		}
+	}
+	
+	private static String getKey(String path, Locale locale) {
+		return path + '_' + locale.toLanguageTag();
+	}
+	
+}
@@ -1,6 +1,8 @@
 module me.joshlarson.jlcommon.javafx {
 	requires static javafx.controls;
 	requires static javafx.fxml;
+	requires static jdk.jfr;
+	requires static java.xml;
 	requires static org.jetbrains.annotations;
 	
 	requires me.joshlarson.jlcommon;
@@ -23,9 +23,17 @@
  ***********************************************************************************/
 package me.joshlarson.jlcommon.javafx.beans;
 
+import me.joshlarson.jlcommon.javafx.beans.ConcurrentBase.BackpressurePolicy;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 public class TestConcurrentBase {
 	
 	@Test
@@ -114,6 +122,112 @@ public class TestConcurrentBase {
 		Assert.assertFalse(cb.getValue());
 	}
 	
+	@Test
+	public void testListenerModificationDuringCallback() {
+		ConcurrentInteger ci = new ConcurrentInteger(0);
+		ConcurrentInteger calls = new ConcurrentInteger(0);
+		
+		ci.addSimpleListener("self", i -> {
+			calls.incrementAndGet();
+			ci.removeListener("self");
+		});
+		ci.addSimpleListener("other", i -> {
+			calls.incrementAndGet();
+			ci.addSimpleListener("added", j -> calls.incrementAndGet());
+		});
+		ci.set(1);
+		Assert.assertEquals(2, calls.get());
+		
+		ci.set(2);
+		Assert.assertEquals(4, calls.get());
+		
+		ci.addSimpleListener("other", i -> {});
+		ci.set(3);
+		Assert.assertEquals(5, calls.get());
+	}
+	
+	@Test
+	public void testAsyncListeners() throws InterruptedException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			List<Integer> blocked = testAsyncListener(executor, BackpressurePolicy.BLOCK);
+			List<Integer> dropOldest = testAsyncListener(executor, BackpressurePolicy.DROP_OLDEST);
+			List<Integer> coalesce = testAsyncListener(executor, BackpressurePolicy.COALESCE);
+			
+			Assert.assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), blocked);
+			Assert.assertEquals(List.of(1, 8, 9, 10), dropOldest);
+			Assert.assertEquals(List.of(1, 2, 3, 10), coalesce);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testBlockingListenerChangingValue() throws InterruptedException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ConcurrentInteger ci = new ConcurrentInteger(0);
+			Semaphore done = new Semaphore(0);
+			ci.addAsyncListener(executor, 1, BackpressurePolicy.BLOCK, next -> {
+				if (next == 1) {
+					ci.set(2);
+					ci.set(3); // the queue is full, and only this thread can empty it
+				} else if (next == 3) {
+					done.release();
+				}
+			});
+			ci.set(1);
+			Assert.assertTrue(done.tryAcquire(5, TimeUnit.SECONDS));
+			Assert.assertEquals(3, ci.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testBlockingFxListener() {
+		new ConcurrentInteger(0).addAsyncListener(FXDispatcher.EXECUTOR, 1, BackpressurePolicy.BLOCK, next -> {});
+	}
+	
+	/**
+	 * Sets 10 values while the listener is stuck delivering the first one, with a queue capacity of 3
+	 */
+	private static List<Integer> testAsyncListener(ExecutorService executor, BackpressurePolicy policy) throws InterruptedException {
+		ConcurrentInteger ci = new ConcurrentInteger(0);
+		List<Integer> received = new ArrayList<>();
+		Semaphore started = new Semaphore(0);
+		Semaphore gate = new Semaphore(0);
+		ci.addAsyncListener(executor, 3, policy, next -> {
+			if (next == 1) {
+				started.release();
+				gate.acquireUninterruptibly();
+			}
+			synchronized (received) {
+				received.add(next);
+			}
+		});
+		ci.set(1);
+		Assert.assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+		Thread writer = new Thread(() -> {
+			for (int i = 2; i <= 10; i++)
+				ci.set(i);
+		});
+		writer.start();
+		if (policy != BackpressurePolicy.BLOCK)
+			writer.join();
+		gate.release();
+		writer.join();
+		long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (System.nanoTime() < timeout) {
+			synchronized (received) {
+				if (!received.isEmpty() && received.get(received.size() - 1) == 10)
+					return received;
+			}
+			Thread.sleep(1);
+		}
+		throw new AssertionError("timed out waiting for listener, received " + received);
+	}
+	
 	@Test
 	public void testComplexListeners() {
 		ConcurrentString str = new ConcurrentString();
@@ -241,6 +355,50 @@ public class TestConcurrentBase {
 		Assert.assertEquals(0, i.get());
 	}
 	
+	@Test
+	public void testConcurrentIncrements() throws InterruptedException {
+		ConcurrentInteger ci = new ConcurrentInteger();
+		ConcurrentLong cl = new ConcurrentLong();
+		ConcurrentLong notifications = new ConcurrentLong();
+		cl.addSimpleListener((obs, prev, next) -> {
+			Assert.assertEquals(prev + 1, (long) next);
+			notifications.incrementAndGet();
+		});
+		
+		Thread [] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 10000; j++) {
+					ci.incrementAndGet();
+					cl.incrementAndGet();
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		
+		Assert.assertEquals(40000, ci.get());
+		Assert.assertEquals(40000, cl.get());
+		Assert.assertEquals(40000, notifications.get());
+	}
+	
+	@Test
+	public void testDoubleNotifications() {
+		ConcurrentDouble d = new ConcurrentDouble(Double.NaN);
+		ConcurrentInteger notifications = new ConcurrentInteger();
+		d.addSimpleListener(next -> notifications.incrementAndGet());
+		
+		d.set(Double.NaN);
+		Assert.assertEquals(0, notifications.get());
+		d.set(0.0);
+		Assert.assertEquals(1, notifications.get());
+		d.set(-0.0);
+		Assert.assertEquals(2, notifications.get());
+		Assert.assertEquals(-0.0, d.updateAndGet(v -> v), 0);
+		Assert.assertEquals(2, notifications.get());
+	}
+	
 	@Test
 	public void testLong() {
 		ConcurrentLong i = new ConcurrentLong(2);
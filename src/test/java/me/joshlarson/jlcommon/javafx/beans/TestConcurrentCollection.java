@@ -29,7 +29,13 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 
 @RunWith(JUnit4.class)
 public class TestConcurrentCollection {
@@ -81,6 +87,198 @@ public class TestConcurrentCollection {
 		Assert.assertEquals("test5", list.get(0));
 	}
 	
+	@Test
+	public void testListDeltas() {
+		ConcurrentList<Integer> list = new ConcurrentList<>();
+		List<Integer> mirror = new ArrayList<>();
+		ConcurrentInteger events = new ConcurrentInteger(0);
+		list.addCollectionChangedListener((obs, changes) -> {
+			events.incrementAndGet();
+			for (CollectionChange<Integer> change : changes) {
+				Assert.assertFalse(change.isReset());
+				for (int i = 0; i < change.getRemoved().size(); i++)
+					Assert.assertEquals(change.getRemoved().get(i), mirror.remove(change.getIndex()));
+				mirror.addAll(change.getIndex(), change.getAdded());
+			}
+		});
+		
+		list.add(1);
+		list.addAll(Arrays.asList(2, 3, 4, 5, 6, 7, 8));
+		Assert.assertEquals(2, events.get());
+		list.add(0, 0);
+		list.addAll(2, Arrays.asList(10, 11));
+		list.set(3, 12);
+		list.remove(1);
+		list.remove((Integer) 12);
+		Assert.assertEquals(list.getValue(), mirror);
+		
+		events.set(0);
+		list.removeIf(i -> i % 2 == 0);
+		Assert.assertEquals(1, events.get());
+		Assert.assertEquals(list.getValue(), mirror);
+		list.retainAll(Arrays.asList(3, 7, 11));
+		Assert.assertEquals(list.getValue(), mirror);
+		
+		events.set(0);
+		Assert.assertFalse(list.remove((Integer) 100));
+		Assert.assertEquals(0, events.get());
+		list.clear();
+		Assert.assertEquals(1, events.get());
+		Assert.assertTrue(mirror.isEmpty());
+		list.clear();
+		Assert.assertEquals(1, events.get());
+	}
+	
+	@Test
+	public void testBatch() {
+		ConcurrentList<Integer> list = new ConcurrentList<>();
+		List<List<CollectionChange<Integer>>> received = new ArrayList<>();
+		ConcurrentInteger simpleCalls = new ConcurrentInteger(0);
+		list.addCollectionChangedListener((obs, changes) -> received.add(changes));
+		list.addCollectionChangedListener(simpleCalls::incrementAndGet);
+		
+		list.batch(() -> {
+			for (int i = 0; i < 1000; i++)
+				list.add(i);
+			list.remove(0);
+		});
+		Assert.assertEquals(1, received.size());
+		Assert.assertEquals(1, simpleCalls.get());
+		Assert.assertEquals(2, received.get(0).size());
+		Assert.assertEquals(1000, received.get(0).get(0).getAdded().size());
+		Assert.assertEquals(0, received.get(0).get(0).getIndex());
+		Assert.assertEquals(List.of(0), received.get(0).get(1).getRemoved());
+		
+		received.clear();
+		list.beginUpdate();
+		list.beginUpdate();
+		list.add(5);
+		list.endUpdate();
+		Assert.assertTrue(received.isEmpty());
+		list.endUpdate();
+		Assert.assertEquals(1, received.size());
+		
+		received.clear();
+		list.batch(() -> {});
+		Assert.assertTrue(received.isEmpty());
+		
+		try {
+			list.endUpdate();
+			Assert.fail("expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testSetDeltas() {
+		ConcurrentSet<String> set = new ConcurrentSet<>();
+		List<CollectionChange<String>> received = new ArrayList<>();
+		set.addCollectionChangedListener((obs, changes) -> received.addAll(changes));
+		
+		set.add("a");
+		set.addAll(Arrays.asList("a", "b", "c"));
+		set.remove("b");
+		Assert.assertEquals(3, received.size());
+		Assert.assertEquals(List.of("a"), received.get(0).getAdded());
+		Assert.assertEquals(List.of("b", "c"), received.get(1).getAdded());
+		Assert.assertEquals(List.of("b"), received.get(2).getRemoved());
+		Assert.assertEquals(-1, received.get(2).getIndex());
+	}
+	
+	@Test
+	public void testSnapshotIteration() {
+		ConcurrentList<String> list = new ConcurrentList<>();
+		list.addAll(Arrays.asList("a", "b", "c"));
+		
+		List<String> snapshot = list.snapshot();
+		Assert.assertSame(snapshot, list.snapshot());
+		List<String> iterated = new ArrayList<>();
+		for (String s : list) {
+			iterated.add(s);
+			list.add(s + s); // would throw ConcurrentModificationException on a live iterator
+		}
+		Assert.assertEquals(List.of("a", "b", "c"), iterated);
+		Assert.assertEquals(List.of("a", "b", "c"), snapshot);
+		Assert.assertEquals(List.of("a", "b", "c", "aa", "bb", "cc"), list.snapshot());
+		Assert.assertNotSame(snapshot, list.snapshot());
+		try {
+			list.iterator().remove();
+			Assert.fail("snapshot iterators should not support removal");
+		} catch (UnsupportedOperationException | IllegalStateException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testSortAndReplaceAll() {
+		ConcurrentList<Integer> list = new ConcurrentList<>(new ArrayList<>(Arrays.asList(5, 3, 1, 4, 2)));
+		List<CollectionChange<Integer>> received = new ArrayList<>();
+		list.addCollectionChangedListener((obs, changes) -> received.addAll(changes));
+		
+		list.sort(Comparator.naturalOrder());
+		Assert.assertEquals(List.of(1, 2, 3, 4, 5), list.snapshot());
+		Assert.assertEquals(1, received.size());
+		Assert.assertTrue(received.get(0).isReset());
+		
+		received.clear();
+		list.replaceAll(i -> i * 10);
+		Assert.assertEquals(List.of(10, 20, 30, 40, 50), list.snapshot());
+		Assert.assertEquals(1, received.size());
+		Assert.assertEquals(0, received.get(0).getIndex());
+		Assert.assertEquals(List.of(1, 2, 3, 4, 5), received.get(0).getRemoved());
+		Assert.assertEquals(List.of(10, 20, 30, 40, 50), received.get(0).getAdded());
+	}
+	
+	@Test
+	public void testWriteThroughIterators() {
+		ConcurrentList<Integer> list = new ConcurrentList<>(new ArrayList<>(Arrays.asList(10, 20, 30, 40, 50)));
+		List<Integer> mirror = new ArrayList<>(list.snapshot());
+		list.addCollectionChangedListener((obs, changes) -> {
+			for (CollectionChange<Integer> change : changes) {
+				for (int i = 0; i < change.getRemoved().size(); i++)
+					Assert.assertEquals(change.getRemoved().get(i), mirror.remove(change.getIndex()));
+				mirror.addAll(change.getIndex(), change.getAdded());
+			}
+		});
+		
+		ListIterator<Integer> it = list.listIterator();
+		while (it.hasNext()) {
+			int i = it.next();
+			if (i == 20)
+				it.remove();
+			else if (i == 30)
+				it.set(31);
+			else if (i == 40)
+				it.add(45);
+		}
+		Assert.assertEquals(List.of(10, 31, 40, 45, 50), list.snapshot());
+		list.subList(1, 3).clear();
+		Assert.assertEquals(List.of(10, 45, 50), list.snapshot());
+		Assert.assertEquals(list.getValue(), mirror);
+		
+		Iterator<Integer> stale = list.iterator();
+		stale.next();
+		list.add(60);
+		try {
+			stale.remove();
+			Assert.fail("removing through an iterator over a changed list should fail");
+		} catch (ConcurrentModificationException e) {
+			// expected
+		}
+		
+		ConcurrentSet<String> set = new ConcurrentSet<>();
+		set.addAll(Arrays.asList("a", "b"));
+		ConcurrentInteger events = new ConcurrentInteger(0);
+		set.addCollectionChangedListener(events::incrementAndGet);
+		for (Iterator<String> iterator = set.iterator(); iterator.hasNext(); ) {
+			if (iterator.next().equals("b"))
+				iterator.remove();
+		}
+		Assert.assertEquals(List.of("a"), set.snapshot());
+		Assert.assertEquals(1, events.get());
+	}
+	
 	@Test
 	public void testSet() {
 		ConcurrentSet<String> list = new ConcurrentSet<>();
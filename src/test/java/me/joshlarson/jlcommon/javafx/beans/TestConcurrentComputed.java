@@ -0,0 +1,156 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestConcurrentComputed {
+	
+	@Test
+	public void testLazyRecomputation() {
+		AtomicInteger computations = new AtomicInteger(0);
+		ConcurrentInteger a = new ConcurrentInteger(1);
+		ConcurrentInteger b = new ConcurrentInteger(2);
+		ConcurrentComputed<Integer> sum = new ConcurrentComputed<>(() -> {
+			computations.incrementAndGet();
+			return a.get() + b.get();
+		}, a, b);
+		Assert.assertEquals(1, computations.get());
+		Assert.assertEquals(3, (int) sum.get());
+		Assert.assertEquals(3, (int) sum.get());
+		Assert.assertEquals(1, computations.get());
+		
+		a.set(5);
+		b.set(6);
+		Assert.assertTrue(sum.isDirty());
+		Assert.assertEquals(1, computations.get());
+		Assert.assertEquals(11, (int) sum.get());
+		Assert.assertEquals(2, computations.get());
+		Assert.assertFalse(sum.isDirty());
+	}
+	
+	@Test
+	public void testListenersOnlyOnChange() {
+		ConcurrentInteger value = new ConcurrentInteger(1);
+		ConcurrentComputed<Boolean> even = new ConcurrentComputed<>(() -> value.get() % 2 == 0, value);
+		List<Boolean> changes = new ArrayList<>();
+		even.addSimpleListener(changes::add);
+		value.set(3);
+		Assert.assertEquals(List.of(), changes);
+		value.set(5);
+		Assert.assertEquals(List.of(), changes);
+		value.set(6);
+		Assert.assertEquals(List.of(true), changes);
+		Assert.assertFalse(even.isDirty());
+	}
+	
+	@Test
+	public void testChained() {
+		AtomicInteger computations = new AtomicInteger(0);
+		ConcurrentInteger value = new ConcurrentInteger(2);
+		ConcurrentComputed<Integer> squared = new ConcurrentComputed<>(() -> {
+			computations.incrementAndGet();
+			return value.get() * value.get();
+		}, value);
+		ConcurrentComputed<String> text = new ConcurrentComputed<>(() -> "x=" + squared.get(), squared);
+		Assert.assertEquals("x=4", text.get());
+		Assert.assertEquals(1, computations.get());
+		value.set(3);
+		Assert.assertTrue(squared.isDirty());
+		Assert.assertTrue(text.isDirty());
+		Assert.assertEquals(1, computations.get());
+		Assert.assertEquals("x=9", text.get());
+		Assert.assertEquals(2, computations.get());
+		
+		List<String> changes = new ArrayList<>();
+		text.addSimpleListener(changes::add);
+		value.set(-3);
+		Assert.assertEquals(List.of(), changes);
+		value.set(4);
+		Assert.assertEquals(List.of("x=16"), changes);
+	}
+	
+	@Test(timeout = 10000)
+	public void testDiamonds() {
+		// every layer doubles the paths to the bottom, so this only finishes if each value is visited once
+		AtomicInteger computations = new AtomicInteger(0);
+		ConcurrentInteger value = new ConcurrentInteger(0);
+		ConcurrentBase<Integer> top = value;
+		for (int i = 0; i < 40; i++) {
+			ConcurrentBase<Integer> source = top;
+			ConcurrentComputed<Integer> left = new ConcurrentComputed<>(() -> source.getValue() + 1, source);
+			ConcurrentComputed<Integer> right = new ConcurrentComputed<>(() -> source.getValue() - 1, source);
+			top = new ConcurrentComputed<>(() -> {
+				computations.incrementAndGet();
+				return (left.get() + right.get()) / 2;
+			}, left, right);
+		}
+		List<Integer> changes = new ArrayList<>();
+		top.addSimpleListener(changes::add);
+		computations.set(0);
+		value.set(7);
+		Assert.assertEquals(List.of(7), changes);
+		Assert.assertEquals(40, computations.get());
+	}
+	
+	@Test
+	public void testConcurrentReadsAndWrites() throws InterruptedException {
+		ConcurrentInteger value = new ConcurrentInteger(0);
+		ConcurrentComputed<Integer> doubled = new ConcurrentComputed<>(() -> value.get() * 2, value);
+		ConcurrentComputed<Integer> quadrupled = new ConcurrentComputed<>(() -> doubled.get() * 2, doubled);
+		quadrupled.addSimpleListener(next -> Assert.assertEquals(0, next % 4));
+		Thread writer = new Thread(() -> {
+			for (int i = 1; i <= 10000; i++)
+				value.set(i);
+		});
+		writer.start();
+		while (writer.isAlive())
+			Assert.assertEquals(0, doubled.get() % 2 + quadrupled.get() % 4);
+		writer.join(10000);
+		Assert.assertEquals(40000, (int) quadrupled.get());
+	}
+	
+	@Test
+	public void testDispose() {
+		ConcurrentInteger value = new ConcurrentInteger(1);
+		ConcurrentComputed<Integer> doubled = new ConcurrentComputed<>(() -> value.get() * 2, value);
+		Assert.assertEquals(2, (int) doubled.get());
+		doubled.dispose();
+		value.set(2);
+		Assert.assertEquals(2, (int) doubled.get());
+		doubled.invalidate();
+		Assert.assertEquals(4, (int) doubled.get());
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void testReadOnly() {
+		new ConcurrentComputed<>(() -> 1).setValue(2);
+	}
+	
+}
@@ -0,0 +1,90 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import javafx.application.Platform;
+import me.joshlarson.jlcommon.javafx.control.FXMLApplication;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class TestConcurrentFxListeners {
+	
+	@BeforeClass
+	public static void init() {
+		FXMLApplication.ensureStarted();
+	}
+	
+	@Test
+	public void testCoalescing() throws InterruptedException {
+		ConcurrentInteger ci = new ConcurrentInteger(0);
+		ConcurrentInteger calls = new ConcurrentInteger(0);
+		ConcurrentInteger lastPrev = new ConcurrentInteger(-1);
+		ConcurrentInteger lastNext = new ConcurrentInteger(-1);
+		ConcurrentBoolean onFxThread = new ConcurrentBoolean(true);
+		ci.addFxListener((obs, prev, next) -> {
+			calls.incrementAndGet();
+			lastPrev.set(prev);
+			lastNext.set(next);
+			onFxThread.updateAndGet(b -> b && Platform.isFxApplicationThread());
+		});
+		
+		Semaphore gate = new Semaphore(0);
+		Platform.runLater(gate::acquireUninterruptibly);
+		for (int i = 1; i <= 1000; i++)
+			ci.set(i);
+		gate.release();
+		waitForFx();
+		
+		Assert.assertEquals(1, calls.get());
+		Assert.assertEquals(0, lastPrev.get());
+		Assert.assertEquals(1000, lastNext.get());
+		Assert.assertEquals(999, ci.getDroppedFxUpdates());
+		Assert.assertTrue(onFxThread.get());
+		
+		ci.set(1001);
+		waitForFx();
+		Assert.assertEquals(2, calls.get());
+		Assert.assertEquals(1001, lastNext.get());
+		
+		ci.clearListeners();
+		ci.set(1002);
+		waitForFx();
+		Assert.assertEquals(2, calls.get());
+		Assert.assertEquals(0, ci.getDroppedFxUpdates());
+	}
+	
+	private static void waitForFx() throws InterruptedException {
+		Semaphore done = new Semaphore(0);
+		Platform.runLater(done::release);
+		Assert.assertTrue(done.tryAcquire(5, TimeUnit.SECONDS));
+	}
+	
+}
@@ -29,6 +29,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
 @RunWith(JUnit4.class)
 public class TestConcurrentMap {
 	
@@ -79,4 +84,199 @@ public class TestConcurrentMap {
 		Assert.assertEquals("test", list.get("test5"));
 	}
 	
+	@Test
+	public void testMapDeltas() {
+		ConcurrentMap<String, Integer> map = new ConcurrentMap<>();
+		List<MapChange<String, Integer>> received = new ArrayList<>();
+		map.addMapChangedListener((obs, changes) -> received.addAll(changes));
+		
+		map.put("a", 1);
+		map.put("a", 1);
+		map.putIfAbsent("a", 2);
+		map.remove("missing");
+		map.remove("a", 5);
+		map.computeIfPresent("missing", (k, v) -> v + 1);
+		Assert.assertEquals(1, received.size());
+		assertChange(received.get(0), MapChange.Kind.ADDED, "a", null, 1);
+		
+		received.clear();
+		map.merge("a", 5, Integer::sum);
+		map.compute("b", (k, v) -> 10);
+		map.remove("b");
+		map.put("n", null);
+		map.put("n", null);
+		map.remove("n");
+		Assert.assertEquals(5, received.size());
+		assertChange(received.get(0), MapChange.Kind.REPLACED, "a", 1, 6);
+		assertChange(received.get(1), MapChange.Kind.ADDED, "b", null, 10);
+		assertChange(received.get(2), MapChange.Kind.REMOVED, "b", 10, null);
+		assertChange(received.get(3), MapChange.Kind.ADDED, "n", null, null);
+		assertChange(received.get(4), MapChange.Kind.REMOVED, "n", null, null);
+		
+		received.clear();
+		map.putAll(Map.of("a", 6, "c", 3));
+		Assert.assertEquals(1, received.size());
+		assertChange(received.get(0), MapChange.Kind.ADDED, "c", null, 3);
+		map.clear();
+		Assert.assertEquals(3, received.size());
+		map.clear();
+		Assert.assertEquals(3, received.size());
+	}
+	
+	@Test
+	public void testWriteThroughViews() {
+		ConcurrentMap<String, Integer> map = new ConcurrentMap<>();
+		map.putAll(Map.of("a", 1, "b", 2, "c", 3, "d", 4));
+		List<MapChange<String, Integer>> received = new ArrayList<>();
+		map.addMapChangedListener((obs, changes) -> received.addAll(changes));
+		
+		Assert.assertTrue(map.keySet().remove("a"));
+		Assert.assertFalse(map.keySet().remove("a"));
+		Assert.assertTrue(map.values().removeIf(v -> v == 2));
+		for (Map.Entry<String, Integer> e : map.entrySet()) {
+			if (e.getKey().equals("c"))
+				Assert.assertEquals(Integer.valueOf(3), e.setValue(30));
+		}
+		Assert.assertEquals(Map.of("c", 30, "d", 4), map.snapshot());
+		Assert.assertEquals(3, received.size());
+		assertChange(received.get(0), MapChange.Kind.REMOVED, "a", 1, null);
+		assertChange(received.get(1), MapChange.Kind.REMOVED, "b", 2, null);
+		assertChange(received.get(2), MapChange.Kind.REPLACED, "c", 3, 30);
+	}
+	
+	@Test
+	public void testBatch() {
+		ConcurrentMap<String, Integer> map = new ConcurrentMap<>();
+		List<List<MapChange<String, Integer>>> received = new ArrayList<>();
+		map.addMapChangedListener((obs, changes) -> received.add(changes));
+		
+		map.batch(() -> {
+			map.put("a", 1);
+			map.put("b", 2);
+			map.put("b", 2);
+			map.remove("a");
+		});
+		Assert.assertEquals(1, received.size());
+		Assert.assertEquals(3, received.get(0).size());
+		
+		received.clear();
+		ConcurrentStripedMap<String, Integer> striped = new ConcurrentStripedMap<>();
+		striped.addMapChangedListener((obs, changes) -> received.add(changes));
+		striped.beginUpdate();
+		striped.put("a", 1);
+		striped.put("b", 2);
+		Assert.assertTrue(received.isEmpty());
+		striped.endUpdate();
+		Assert.assertEquals(1, received.size());
+		Assert.assertEquals(2, received.get(0).size());
+	}
+	
+	@Test
+	public void testStripedMap() throws InterruptedException {
+		ConcurrentStripedMap<Integer, Integer> map = new ConcurrentStripedMap<>(8);
+		ConcurrentInteger added = new ConcurrentInteger(0);
+		map.addMapChangedListener((obs, changes) -> {
+			for (MapChange<Integer, Integer> change : changes) {
+				if (change.getKind() == MapChange.Kind.ADDED)
+					added.incrementAndGet();
+			}
+		});
+		
+		Thread [] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			int offset = i;
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 5000; j++) {
+					int key = j * threads.length + offset;
+					map.put(key, key);
+					map.merge(key, 1, Integer::sum);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		
+		Assert.assertEquals(40000, map.size());
+		Assert.assertEquals(40000, added.get());
+		Assert.assertEquals(Integer.valueOf(101), map.get(100));
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+	}
+	
+	@Test
+	public void testStripedMapManyStripes() {
+		ConcurrentStripedMap<Integer, Integer> map = new ConcurrentStripedMap<>(Integer.MAX_VALUE);
+		for (int i = 0; i < 1000; i++)
+			map.put(i, i);
+		map.replaceAll((key, value) -> value + 1);
+		Assert.assertEquals(Integer.valueOf(1000), map.get(999));
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+	}
+	
+	@Test
+	public void testSnapshotIteration() throws InterruptedException {
+		ConcurrentMap<String, Integer> map = new ConcurrentMap<>();
+		map.put("a", 1);
+		map.put("b", 2);
+		
+		Map<String, Integer> snapshot = map.snapshot();
+		Assert.assertSame(snapshot, map.snapshot());
+		for (String key : map.keySet())
+			map.put(key + key, 0); // would throw ConcurrentModificationException on a live view
+		Assert.assertEquals(Map.of("a", 1, "b", 2), snapshot);
+		Assert.assertEquals(4, map.snapshot().size());
+		map.computeIfAbsent("c", k -> 3);
+		Assert.assertEquals(Integer.valueOf(3), map.snapshot().get("c"));
+		
+		ConcurrentStripedMap<Integer, Integer> striped = new ConcurrentStripedMap<>();
+		Thread writer = new Thread(() -> {
+			for (int i = 0; i < 10000; i++)
+				striped.put(i, i);
+		});
+		writer.start();
+		while (writer.isAlive()) {
+			int sum = 0;
+			for (Map.Entry<Integer, Integer> e : striped.entrySet())
+				sum += e.getValue();
+			Assert.assertTrue(sum >= 0);
+		}
+		writer.join();
+		Assert.assertEquals(10000, striped.snapshot().size());
+		for (int i = 0; i < 64; i++) { // each stripe has its own version counter
+			Map<Integer, Integer> before = striped.snapshot();
+			striped.put(i, -i);
+			Assert.assertNotSame(before, striped.snapshot());
+			Assert.assertEquals(Integer.valueOf(-i), striped.snapshot().get(i));
+		}
+	}
+	
+	@Test
+	public void testSnapshotInsideListener() {
+		for (ConcurrentMap<String, Integer> map : List.of(new ConcurrentMap<String, Integer>(), new ConcurrentStripedMap<String, Integer>())) {
+			List<String> seen = new ArrayList<>();
+			map.addMapChangedListener((obs, changes) -> {
+				Assert.assertEquals(obs.size(), obs.keySet().size());
+				Assert.assertEquals(obs.size(), obs.entrySet().size());
+				seen.add(String.join(",", new TreeSet<>(obs.keySet())));
+			});
+			map.put("a", 1);
+			map.keySet(); // caches a snapshot that each following change must invalidate before notifying
+			map.put("b", 2);
+			map.putAll(Map.of("c", 3));
+			map.computeIfPresent("a", (k, v) -> v + 1);
+			map.replaceAll((k, v) -> v * 2);
+			map.remove("b");
+			Assert.assertEquals(List.of("a", "a,b", "a,b,c", "a,b,c", "a,b,c", "a,c"), seen);
+		}
+	}
+	
+	private static void assertChange(MapChange<String, Integer> change, MapChange.Kind kind, String key, Integer oldValue, Integer newValue) {
+		Assert.assertEquals(kind, change.getKind());
+		Assert.assertEquals(key, change.getKey());
+		Assert.assertEquals(oldValue, change.getOldValue());
+		Assert.assertEquals(newValue, change.getNewValue());
+	}
+	
 }
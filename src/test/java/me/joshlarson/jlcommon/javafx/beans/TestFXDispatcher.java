@@ -0,0 +1,73 @@
+/***********************************************************************************
+ * MIT License                                                                     *
+ *                                                                                 *
+ * Copyright (c) 2018 Josh Larson                                                  *
+ *                                                                                 *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy    *
+ * of this software and associated documentation files (the "Software"), to deal   *
+ * in the Software without restriction, including without limitation the rights    *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell       *
+ * copies of the Software, and to permit persons to whom the Software is           *
+ * furnished to do so, subject to the following conditions:                        *
+ *                                                                                 *
+ * The above copyright notice and this permission notice shall be included in all  *
+ * copies or substantial portions of the Software.                                 *
+ *                                                                                 *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR      *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,        *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE     *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER          *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,   *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE   *
+ * SOFTWARE.                                                                       *
+ ***********************************************************************************/
+package me.joshlarson.jlcommon.javafx.beans;
+
+import javafx.application.Platform;
+import me.joshlarson.jlcommon.javafx.control.FXMLApplication;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class TestFXDispatcher {
+	
+	@Test
+	public void testSetBeforeToolkitStarts() throws InterruptedException {
+		Assume.assumeFalse("the FX toolkit was started by an earlier test", isToolkitRunning());
+		ConcurrentInteger early = new ConcurrentInteger(0);
+		ConcurrentInteger earlyNext = new ConcurrentInteger(-1);
+		Semaphore earlyDelivered = new Semaphore(0);
+		early.addFxListener((obs, prev, next) -> {
+			earlyNext.set(next);
+			earlyDelivered.release();
+		});
+		early.set(1); // nowhere to deliver yet, but must neither throw nor wedge the dispatcher
+		
+		FXMLApplication.ensureStarted();
+		ConcurrentInteger later = new ConcurrentInteger(0);
+		Semaphore laterDelivered = new Semaphore(0);
+		later.addFxListener((obs, prev, next) -> laterDelivered.release());
+		later.set(1);
+		Assert.assertTrue(laterDelivered.tryAcquire(5, TimeUnit.SECONDS));
+		
+		early.set(2);
+		Assert.assertTrue(earlyDelivered.tryAcquire(5, TimeUnit.SECONDS));
+		Assert.assertEquals(2, earlyNext.get());
+	}
+	
+	private static boolean isToolkitRunning() {
+		try {
+			Platform.runLater(() -> {});
+			return true;
+		} catch (IllegalStateException e) {
+			return false;
+		}
+	}
+	
+}
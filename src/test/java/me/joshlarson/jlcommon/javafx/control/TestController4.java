@@ -0,0 +1,58 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Label;
+import me.joshlarson.jlcommon.javafx.control.FXMLService;
+
+import java.net.URL;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestController4 extends FXMLService implements Initializable, FXMLPooledView {
+	
+	static final AtomicInteger FUNCTION_OPERATIONS = new AtomicInteger(0);
+	static final AtomicInteger RESETS = new AtomicInteger(0);
+	
+	@FXML
+	Label label;
+	
+	public TestController4() {
+		
+	}
+	
+	@Override
+	public void initialize(URL location, ResourceBundle resources) {
+		
+	}
+	
+	@Override
+	public boolean initialize() {
+		FUNCTION_OPERATIONS.incrementAndGet();
+		return true;
+	}
+	
+	@Override
+	public boolean start() {
+		FUNCTION_OPERATIONS.incrementAndGet();
+		return true;
+	}
+	
+	@Override
+	public boolean stop() {
+		FUNCTION_OPERATIONS.incrementAndGet();
+		return true;
+	}
+	
+	@Override
+	public boolean terminate() {
+		FUNCTION_OPERATIONS.incrementAndGet();
+		return true;
+	}
+	
+	@Override
+	public void reset() {
+		RESETS.incrementAndGet();
+	}
+	
+}
@@ -0,0 +1,66 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+@RunWith(JUnit4.class)
+public class TestFXMLTemplateCache {
+	
+	@Test
+	public void testClassResource() throws IOException {
+		FXMLTemplateCache cache = new FXMLTemplateCache(false);
+		URL url = getClass().getResource("/test1.fxml");
+		byte [] source = cache.getSource(url);
+		Assert.assertTrue(source.length > 0);
+		Assert.assertSame(source, cache.getSource(url));
+	}
+	
+	@Test
+	public void testFileModified() throws IOException {
+		FXMLTemplateCache cache = new FXMLTemplateCache(true);
+		Path file = Files.createTempFile("template", ".fxml");
+		try {
+			URL url = file.toUri().toURL();
+			Files.writeString(file, "first");
+			Files.setLastModifiedTime(file, FileTime.fromMillis(1000));
+			byte [] source = cache.getSource(url);
+			Assert.assertEquals("first", new String(source, StandardCharsets.UTF_8));
+			Assert.assertSame(source, cache.getSource(url));
+			
+			Files.writeString(file, "second");
+			Files.setLastModifiedTime(file, FileTime.fromMillis(2000));
+			Assert.assertEquals("second", new String(cache.getSource(url), StandardCharsets.UTF_8));
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void testInvalidate() throws IOException {
+		FXMLTemplateCache cache = new FXMLTemplateCache(false);
+		Path file = Files.createTempFile("template", ".fxml");
+		try {
+			URL url = file.toUri().toURL();
+			Files.writeString(file, "first");
+			Assert.assertEquals("first", new String(cache.getSource(url), StandardCharsets.UTF_8));
+			
+			Files.writeString(file, "second");
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+			Assert.assertEquals("first", new String(cache.getSource(url), StandardCharsets.UTF_8));
+			cache.invalidate(url);
+			Assert.assertEquals("second", new String(cache.getSource(url), StandardCharsets.UTF_8));
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+}
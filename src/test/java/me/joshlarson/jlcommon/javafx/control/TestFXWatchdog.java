@@ -0,0 +1,69 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import javafx.application.Platform;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class TestFXWatchdog {
+	
+	@BeforeClass
+	public static void init() {
+		FXMLApplication.ensureStarted();
+	}
+	
+	@Test
+	public void testStallDetection() throws Exception {
+		FXWatchdog watchdog = new FXWatchdog(Duration.ofMillis(10), Duration.ofMillis(200));
+		CompletableFuture<StackTraceElement []> stall = new CompletableFuture<>();
+		watchdog.addStallListener((stalled, fxStack) -> stall.complete(fxStack));
+		Assert.assertTrue(watchdog.start());
+		try {
+			Thread.sleep(100); // let a few heartbeats capture the FX thread
+			Platform.runLater(TestFXWatchdog::blockFxThread);
+			StackTraceElement [] stack = stall.get(5, TimeUnit.SECONDS);
+			Assert.assertTrue(Arrays.stream(stack).anyMatch(e -> e.getMethodName().equals("blockFxThread")));
+			
+			CompletableFuture<Void> drained = new CompletableFuture<>();
+			Platform.runLater(() -> drained.complete(null));
+			drained.get(5, TimeUnit.SECONDS);
+		} finally {
+			Assert.assertTrue(watchdog.stop());
+		}
+		LatencyHistogram latency = watchdog.getLatency();
+		Assert.assertTrue(latency.getCount() > 0);
+		Assert.assertTrue(latency.getMax().toMillis() >= 200);
+	}
+	
+	@Test
+	public void testHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assert.assertEquals(Duration.ZERO, histogram.getPercentile(50));
+		for (int i = 0; i < 99; i++)
+			histogram.record(Duration.ofNanos(500));
+		histogram.record(Duration.ofMillis(3));
+		Assert.assertEquals(100, histogram.getCount());
+		Assert.assertEquals(Duration.ofMillis(3), histogram.getMax());
+		Assert.assertEquals(Duration.ofNanos(1000), histogram.getPercentile(50));
+		Assert.assertEquals(Duration.ofNanos(4096 * 1000), histogram.getPercentile(100));
+		histogram.reset();
+		Assert.assertEquals(0, histogram.getCount());
+	}
+	
+	private static void blockFxThread() {
+		try {
+			Thread.sleep(500);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+}
@@ -1,8 +1,16 @@
 package me.joshlarson.jlcommon.javafx.control;
 
+import javafx.application.Platform;
+import javafx.fxml.Initializable;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
 import me.joshlarson.jlcommon.control.IntentManager;
 import me.joshlarson.jlcommon.control.Manager;
 import me.joshlarson.jlcommon.control.ManagerStructure;
+import me.joshlarson.jlcommon.javafx.beans.ConcurrentString;
 import me.joshlarson.jlcommon.log.Log;
 import me.joshlarson.jlcommon.log.log_wrapper.ConsoleLogWrapper;
 import org.junit.Assert;
@@ -12,8 +20,24 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(JUnit4.class)
@@ -30,6 +54,15 @@ public class TestFxmlLoading {
 		TestController1.FUNCTION_OPERATIONS.set(0);
 		TestController1.SWITCHED_LOCALE.set(false);
 		TestController3.INITIALIZED.set(false);
+		TestController4.FUNCTION_OPERATIONS.set(0);
+		TestController4.RESETS.set(0);
+	}
+	
+	@Test
+	public void testApplicationStartup() throws Exception {
+		FXMLApplication application = FXMLApplication.ensureStartedAsync().get(10, TimeUnit.SECONDS);
+		Assert.assertSame(FXMLApplication.getApplication(), application);
+		Assert.assertTrue(FXMLApplication.getStartupTime().toNanos() > 0);
 	}
 	
 	@Test
@@ -65,6 +98,119 @@ public class TestFxmlLoading {
 		Manager.stop(Collections.singleton(manager));
 	}
 	
+	@Test
+	public void testLoadFxmlLogsFailures() throws Exception {
+		FXMLApplication.ensureStartedAsync().get(10, TimeUnit.SECONDS);
+		FXMLManager manager = FXMLManager.builder()
+				.withKlass(getClass())
+				.withLocale(Locale.US)
+				.withResourceBundlePath("strings")
+				.build();
+		// without an intent manager TestController2 fails to initialize, which is logged rather than thrown
+		Initializable controller = manager.loadFxml(getClass().getResource("/test2.fxml"));
+		Assert.assertTrue(controller instanceof TestController2);
+	}
+	
+	@Test
+	public void testPreloadedLocales() {
+		URL url = getClass().getResource("/test4.fxml");
+		FXMLManager manager = FXMLManager.builder()
+				.withKlass(getClass())
+				.withLocale(Locale.US)
+				.withResourceBundlePath("strings")
+				.withPreloadedLocales(Locale.GERMAN)
+				.addFxml(url)
+				.build();
+		Manager.start(Collections.singleton(manager));
+		Assert.assertEquals("Hello", ((TestController4) manager.getView(url)).label.getText());
+		manager.reinflate(Locale.GERMAN);
+		Assert.assertEquals("Hallo", ((TestController4) manager.getView(url)).label.getText());
+		Manager.stop(Collections.singleton(manager));
+	}
+	
+	@Test
+	public void testSetLocale() throws Exception {
+		URL url = getClass().getResource("/test4.fxml");
+		FXMLManager manager = FXMLManager.builder()
+				.withKlass(getClass())
+				.withLocale(Locale.US)
+				.withResourceBundlePath("strings")
+				.addFxml(url)
+				.build();
+		Manager.start(Collections.singleton(manager));
+		TestController4 view = (TestController4) manager.getView(url);
+		ConcurrentString property = manager.getLocalizedStrings().getProperty("mylabel");
+		Assert.assertEquals("Hello", view.label.getText());
+		Assert.assertEquals("Hello", property.get());
+		
+		manager.setLocale(Locale.GERMAN);
+		Assert.assertSame(view, manager.getView(url));
+		Assert.assertEquals("Hallo", view.label.getText());
+		Assert.assertEquals("Hallo", property.get());
+		Assert.assertEquals("missing", manager.getLocalizedStrings().getString("missing"));
+		Manager.stop(Collections.singleton(manager));
+	}
+	
+	@Test
+	public void testViewPool() {
+		URL url = getClass().getResource("/test4.fxml");
+		List<Boolean> onFxThread = new CopyOnWriteArrayList<>();
+		FXMLManager manager = FXMLManager.builder()
+				.withKlass(getClass())
+				.withLocale(Locale.US)
+				.withResourceBundlePath("strings")
+				.withViewPoolSize(1)
+				.addLifecycleListener((phase, subject, duration) -> {
+					if (phase != FXMLLifecycleListener.Phase.INFLATE && phase != FXMLLifecycleListener.Phase.CONSTRUCT && phase != FXMLLifecycleListener.Phase.FX_WAIT)
+						onFxThread.add(Platform.isFxApplicationThread());
+				})
+				.build();
+		Manager.start(Collections.singleton(manager));
+		Initializable first = manager.borrowView(url);
+		Initializable second = manager.borrowView(url);
+		Assert.assertNotSame(first, second);
+		manager.releaseView(first);
+		manager.releaseView(second); // the pool is full, so this one is discarded
+		Assert.assertEquals(2, TestController4.RESETS.get());
+		Assert.assertSame(first, manager.borrowView(url));
+		Assert.assertNotSame(second, manager.borrowView(url));
+		try {
+			manager.releaseView(second);
+			Assert.fail("released a view twice");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		Assert.assertEquals(8, onFxThread.size()); // three views brought up, one discarded
+		Assert.assertFalse(onFxThread.contains(Boolean.FALSE));
+		Manager.stop(Collections.singleton(manager));
+	}
+	
+	@Test
+	public void testControllerFactories() {
+		AtomicInteger controllers = new AtomicInteger(0);
+		AtomicInteger services = new AtomicInteger(0);
+		FXMLManager manager = FXMLManager.builder()
+				.withKlass(getClass())
+				.withLocale(Locale.US)
+				.withResourceBundlePath("strings")
+				.withControllerFactory(TestController1.class, () -> {
+					controllers.incrementAndGet();
+					return new TestController1();
+				})
+				.addService(TestService.class, () -> {
+					services.incrementAndGet();
+					return new TestService();
+				})
+				.addFxml(getClass().getResource("/test1.fxml"))
+				.build();
+		manager.setIntentManager(new IntentManager(0));
+		Manager.start(Collections.singleton(manager));
+		Assert.assertEquals(1, services.get());
+		Assert.assertEquals(2, controllers.get()); // inflated directly and by TestService
+		Assert.assertEquals(2, TestService.FUNCTION_OPERATIONS.get());
+		Manager.stop(Collections.singleton(manager));
+	}
+	
 	@Test
 	public void testController3() {
 		FXMLManager manager = FXMLManager.builder().withLocale(Locale.US).addFxml(getClass().getResource("/test3.fxml")).build();
@@ -74,6 +220,269 @@ public class TestFxmlLoading {
 		Assert.assertEquals(4, TestController1.FUNCTION_OPERATIONS.get());
 	}
 	
+	@Test
+	public void testParallelInflation() {
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.withKlass(getClass())
+				.withResourceBundlePath("strings")
+				.withInflationParallelism(4)
+				.addFxml(getClass().getResource("/test1.fxml"))
+				.addFxml(getClass().getResource("/test3.fxml"))
+				.addService(TestService.class)
+				.build();
+		manager.setIntentManager(new IntentManager(0));
+		Manager.start(Collections.singleton(manager));
+		Assert.assertTrue(TestController3.INITIALIZED.get());
+		Assert.assertEquals(2, TestService.FUNCTION_OPERATIONS.get());
+		manager.reinflate();
+		Manager.stop(Collections.singleton(manager));
+		// test1 is inflated directly, through test3 and by TestService, in each of the two inflations
+		Assert.assertEquals(4 * 6, TestController1.FUNCTION_OPERATIONS.get());
+	}
+	
+	@Test
+	public void testCompiledView() {
+		AtomicInteger builds = new AtomicInteger(0);
+		URL url = getClass().getResource("/test4.fxml");
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.addFxml(url)
+				.addCompiledView(url, (location, resources, register) -> {
+					builds.incrementAndGet();
+					TestController4 controller = new TestController4();
+					register.accept(controller);
+					controller.label = new Label("Hello World");
+					new VBox(controller.label);
+					controller.initialize(location, resources);
+					return controller;
+				})
+				.build();
+		Manager.start(Collections.singleton(manager));
+		Assert.assertEquals("Hello World", ((TestController4) manager.getView(url)).label.getText());
+		Manager.stop(Collections.singleton(manager));
+		Assert.assertEquals(1, builds.get());
+		Assert.assertEquals(4, TestController4.FUNCTION_OPERATIONS.get());
+	}
+	
+	@Test
+	public void testGeneratedView() {
+		URL url = getClass().getResource("/test5.fxml");
+		FXMLManager manager = FXMLManager.builder()
+				.withKlass(getClass())
+				.withLocale(Locale.US)
+				.withResourceBundlePath("strings")
+				.addFxml(url)
+				.addCompiledView(url, new Test5CompiledView()) // generated by compileTestFxml
+				.build();
+		Manager.start(Collections.singleton(manager));
+		Label label = ((TestController4) manager.getView(url)).label;
+		VBox root = (VBox) label.getParent();
+		Manager.stop(Collections.singleton(manager));
+		Assert.assertEquals("Hello World", label.getText());
+		Assert.assertEquals(4, root.getSpacing(), 0);
+		Assert.assertTrue(root.getStyleClass().containsAll(List.of("root", "compiled")));
+		Assert.assertEquals(2, root.getChildren().size());
+		Assert.assertEquals("Hello", ((Label) root.getChildren().get(1)).getText());
+		Assert.assertEquals(4, TestController4.FUNCTION_OPERATIONS.get());
+	}
+	
+	@Test
+	public void testGeneratedViewRejectsUnsupportedFxml() throws IOException {
+		try {
+			new FXMLViewCompiler().compile(getClass().getResource("/test4.fxml"));
+			Assert.fail("expressions are not supported");
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("${i18n.mylabel}"));
+		}
+		Assert.assertEquals("me.joshlarson.jlcommon.javafx.control.Test1CompiledView", new FXMLViewCompiler().compile(getClass().getResource("/test1.fxml")).getQualifiedName());
+	}
+	
+	@Test
+	public void testDeferredView() {
+		URL url = getClass().getResource("/test1.fxml");
+		List<Boolean> onFxThread = new CopyOnWriteArrayList<>();
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.addFxml(getClass().getResource("/test3.fxml"))
+				.addDeferredFxml(url)
+				.addLifecycleListener((phase, subject, duration) -> {
+					if (phase == FXMLLifecycleListener.Phase.INITIALIZE || phase == FXMLLifecycleListener.Phase.START)
+						onFxThread.add(Platform.isFxApplicationThread());
+				})
+				.build();
+		Manager.start(Collections.singleton(manager));
+		Assert.assertTrue(TestController3.INITIALIZED.get());
+		Assert.assertEquals(2, TestController1.FUNCTION_OPERATIONS.get()); // only the copy included by test3
+		Initializable view = manager.getView(url);
+		Assert.assertTrue(view instanceof TestController1);
+		Assert.assertSame(view, manager.getView(url));
+		Assert.assertEquals(4, TestController1.FUNCTION_OPERATIONS.get());
+		Assert.assertFalse(onFxThread.contains(Boolean.FALSE));
+		Manager.stop(Collections.singleton(manager));
+		Assert.assertEquals(8, TestController1.FUNCTION_OPERATIONS.get());
+	}
+	
+	@Test
+	public void testPreloadDeferredView() throws InterruptedException {
+		URL url = getClass().getResource("/test1.fxml");
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.addDeferredFxml(url)
+				.withPreloadDeferred(true)
+				.build();
+		Manager.start(Collections.singleton(manager));
+		long timeout = System.nanoTime() + 5_000_000_000L;
+		while (TestController1.FUNCTION_OPERATIONS.get() < 2 && System.nanoTime() < timeout)
+			Thread.sleep(10);
+		Assert.assertEquals(2, TestController1.FUNCTION_OPERATIONS.get());
+		Assert.assertTrue(manager.getView(url) instanceof TestController1);
+		Assert.assertEquals(2, TestController1.FUNCTION_OPERATIONS.get());
+		Manager.stop(Collections.singleton(manager));
+		Assert.assertEquals(4, TestController1.FUNCTION_OPERATIONS.get());
+	}
+	
+	@Test
+	public void testHotReload() throws Exception {
+		Path file = Files.createTempDirectory("fxml").resolve("reload.fxml");
+		try (InputStream is = getClass().getResourceAsStream("/test1.fxml")) {
+			Files.writeString(file, new String(is.readAllBytes(), StandardCharsets.UTF_8).replace("TestController1", "TestController4"));
+		}
+		URL url = file.toUri().toURL();
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.addFxml(file.toFile())
+				.withHotReload(true)
+				.build();
+		try {
+			Manager.start(Collections.singleton(manager));
+			TestController4 original = (TestController4) manager.getView(url);
+			VBox container = new VBox();
+			CompletableFuture<Void> attached = new CompletableFuture<>();
+			Platform.runLater(() -> {
+				container.getChildren().add(original.label.getParent());
+				attached.complete(null);
+			});
+			attached.get(5, TimeUnit.SECONDS);
+			Assert.assertEquals(2, TestController4.FUNCTION_OPERATIONS.get());
+			
+			Files.writeString(file, Files.readString(file).replace("<VBox ", "<VBox spacing=\"5\" "));
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+			long timeout = System.nanoTime() + 10_000_000_000L;
+			while (manager.getView(url) == original && System.nanoTime() < timeout)
+				Thread.sleep(10);
+			TestController4 reloaded = (TestController4) manager.getView(url);
+			Assert.assertNotSame(original, reloaded);
+			Assert.assertEquals(5, ((VBox) reloaded.label.getParent()).getSpacing(), 0);
+			Assert.assertSame(reloaded.label.getParent(), container.getChildren().get(0));
+			Assert.assertEquals(6, TestController4.FUNCTION_OPERATIONS.get());
+		} finally {
+			Manager.stop(Collections.singleton(manager));
+			Files.delete(file);
+			Files.delete(file.getParent());
+		}
+		Assert.assertEquals(8, TestController4.FUNCTION_OPERATIONS.get());
+	}
+	
+	@Test
+	public void testReloadInControls() throws Exception {
+		FXMLApplication.ensureStarted();
+		URL url = getClass().getResource("/test4.fxml");
+		FXMLManager manager = FXMLManager.builder()
+				.withKlass(getClass())
+				.withLocale(Locale.US)
+				.withResourceBundlePath("strings")
+				.addFxml(url)
+				.build();
+		try {
+			Manager.start(Collections.singleton(manager));
+			ScrollPane scroll = new ScrollPane();
+			runOnFx(() -> {
+				scroll.setContent(((TestController4) manager.getView(url)).label.getParent());
+				new Scene(scroll).getRoot().applyCss();
+			});
+			Assert.assertTrue(manager.reinflate(url));
+			TestController4 scrolled = (TestController4) manager.getView(url);
+			Assert.assertSame(scrolled.label.getParent(), scroll.getContent());
+			
+			BorderPane border = new BorderPane();
+			runOnFx(() -> {
+				scroll.setContent(null);
+				border.setLeft(scrolled.label.getParent());
+			});
+			Assert.assertTrue(manager.reinflate(url));
+			TestController4 bordered = (TestController4) manager.getView(url);
+			Assert.assertSame(bordered.label.getParent(), border.getLeft());
+			Assert.assertEquals(10, TestController4.FUNCTION_OPERATIONS.get());
+			
+			// a node used as a graphic cannot be swapped, so the running view is kept
+			Label graphic = new Label();
+			runOnFx(() -> {
+				border.setLeft(null);
+				graphic.setGraphic(bordered.label.getParent());
+				new Scene(graphic).getRoot().applyCss();
+			});
+			Assert.assertFalse(manager.reinflate(url));
+			Assert.assertSame(bordered, manager.getView(url));
+			Assert.assertEquals(10, TestController4.FUNCTION_OPERATIONS.get());
+		} finally {
+			Manager.stop(Collections.singleton(manager));
+		}
+		Assert.assertEquals(12, TestController4.FUNCTION_OPERATIONS.get());
+	}
+	
+	@Test
+	public void testLifecycleOnFxThread() throws Exception {
+		FXMLApplication.ensureStarted();
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.withInflationParallelism(4)
+				.addFxml(getClass().getResource("/test1.fxml"))
+				.addFxml(getClass().getResource("/test3.fxml"))
+				.build();
+		CompletableFuture<Boolean> result = new CompletableFuture<>();
+		Platform.runLater(() -> result.complete(manager.initialize() && manager.start() && manager.stop() && manager.terminate()));
+		Assert.assertTrue(result.get(10, TimeUnit.SECONDS));
+		Assert.assertTrue(TestController3.INITIALIZED.get());
+		Assert.assertEquals(8, TestController1.FUNCTION_OPERATIONS.get());
+	}
+	
+	@Test
+	public void testAsyncLifecycle() throws Exception {
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.withLifecycleTimeout(Duration.ofSeconds(10))
+				.addFxml(getClass().getResource("/test1.fxml"))
+				.build();
+		Assert.assertTrue(manager.initializeAsync().get(10, TimeUnit.SECONDS));
+		
+		// on the FX thread, the work runs directly instead of waiting for the FX thread
+		CompletableFuture<CompletableFuture<Boolean>> startedOnFx = new CompletableFuture<>();
+		Platform.runLater(() -> startedOnFx.complete(manager.startAsync()));
+		CompletableFuture<Boolean> started = startedOnFx.get(10, TimeUnit.SECONDS);
+		Assert.assertTrue(started.isDone());
+		Assert.assertTrue(started.get());
+		
+		Assert.assertTrue(manager.stop());
+		Assert.assertTrue(manager.terminate());
+		Assert.assertEquals(4, TestController1.FUNCTION_OPERATIONS.get());
+	}
+	
+	@Test
+	public void testAsyncFailure() throws Exception {
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.addFxml(new File("does-not-exist.fxml"))
+				.build();
+		try {
+			manager.initializeAsync().get(10, TimeUnit.SECONDS);
+			Assert.fail("initializeAsync should propagate the load failure");
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause().getMessage().contains("does-not-exist.fxml"));
+		}
+		Assert.assertFalse(manager.initialize());
+	}
+	
 	@Test
 	public void testServices() {
 		FXMLManager manager = FXMLManager.builder().withLocale(Locale.US).withKlass(getClass()).withResourceBundlePath("strings").addService(TestService.class).build();
@@ -94,6 +503,77 @@ public class TestFxmlLoading {
 		Assert.assertEquals(4, TestService.FUNCTION_OPERATIONS.get());
 	}
 	
+	@Test
+	public void testDependencyOrder() {
+		OrderedService.EVENTS.clear();
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.withShutdownParallelism(4)
+				.addService(DependentService.class)
+				.addService(IndependentService.class)
+				.addService(DependencyService.class)
+				.build();
+		Manager.start(Collections.singleton(manager));
+		Manager.stop(Collections.singleton(manager));
+		
+		List<String> events = OrderedService.EVENTS;
+		Assert.assertEquals(12, events.size());
+		Assert.assertTrue(events.indexOf("initialize DependencyService") < events.indexOf("initialize DependentService"));
+		Assert.assertTrue(events.indexOf("start DependencyService") < events.indexOf("start DependentService"));
+		Assert.assertTrue(events.indexOf("stop DependentService") < events.indexOf("stop DependencyService"));
+		Assert.assertTrue(events.indexOf("terminate DependentService") < events.indexOf("terminate DependencyService"));
+	}
+	
+	@Test
+	public void testParallelShutdownOnFxThread() throws Exception {
+		FXMLApplication.ensureStarted();
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.withShutdownParallelism(4)
+				.addService(FxStopService.class)
+				.addService(IndependentService.class)
+				.build();
+		Assert.assertTrue(manager.initialize());
+		Assert.assertTrue(manager.start());
+		CompletableFuture<Boolean> result = new CompletableFuture<>();
+		Platform.runLater(() -> result.complete(manager.stop() && manager.terminate()));
+		Assert.assertTrue(result.get(10, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	public void testLifecycleListener() {
+		Map<FXMLLifecycleListener.Phase, List<String>> phases = new ConcurrentHashMap<>();
+		URL url = getClass().getResource("/test1.fxml");
+		FXMLManager manager = FXMLManager.builder()
+				.withLocale(Locale.US)
+				.addFxml(url)
+				.addLifecycleListener((phase, subject, duration) -> {
+					Assert.assertFalse(duration.isNegative());
+					phases.computeIfAbsent(phase, p -> new CopyOnWriteArrayList<>()).add(subject);
+				})
+				.build();
+		Manager.start(Collections.singleton(manager));
+		Manager.stop(Collections.singleton(manager));
+		
+		String controller = TestController1.class.getName();
+		Assert.assertEquals(List.of(url.toExternalForm()), phases.get(FXMLLifecycleListener.Phase.INFLATE));
+		Assert.assertEquals(List.of(controller), phases.get(FXMLLifecycleListener.Phase.CONSTRUCT));
+		Assert.assertEquals(List.of(controller), phases.get(FXMLLifecycleListener.Phase.INITIALIZE));
+		Assert.assertEquals(List.of(controller), phases.get(FXMLLifecycleListener.Phase.START));
+		Assert.assertEquals(List.of(controller), phases.get(FXMLLifecycleListener.Phase.STOP));
+		Assert.assertEquals(List.of(controller), phases.get(FXMLLifecycleListener.Phase.TERMINATE));
+		Assert.assertEquals(List.of("initialize", "start"), phases.get(FXMLLifecycleListener.Phase.FX_WAIT));
+	}
+	
+	private static void runOnFx(Runnable runnable) throws Exception {
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		Platform.runLater(() -> {
+			runnable.run();
+			done.complete(null);
+		});
+		done.get(5, TimeUnit.SECONDS);
+	}
+	
 	@ManagerStructure(children = {
 			TestService.class
 	})
@@ -101,6 +581,66 @@ public class TestFxmlLoading {
 		
 	}
 	
+	public abstract static class OrderedService extends FXMLService {
+		
+		private static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+		
+		@Override
+		public boolean initialize() {
+			EVENTS.add("initialize " + getClass().getSimpleName());
+			return true;
+		}
+		
+		@Override
+		public boolean start() {
+			EVENTS.add("start " + getClass().getSimpleName());
+			return true;
+		}
+		
+		@Override
+		public boolean stop() {
+			EVENTS.add("stop " + getClass().getSimpleName());
+			return true;
+		}
+		
+		@Override
+		public boolean terminate() {
+			EVENTS.add("terminate " + getClass().getSimpleName());
+			return true;
+		}
+		
+	}
+	
+	@DependsOn(DependencyService.class)
+	public static class DependentService extends OrderedService {
+		
+	}
+	
+	public static class DependencyService extends OrderedService {
+		
+	}
+	
+	public static class IndependentService extends OrderedService {
+		
+	}
+	
+	public static class FxStopService extends OrderedService {
+		
+		@Override
+		public boolean stop() {
+			if (Platform.isFxApplicationThread())
+				return super.stop();
+			CompletableFuture<Boolean> stopped = new CompletableFuture<>();
+			Platform.runLater(() -> stopped.complete(super.stop()));
+			try {
+				return stopped.get(5, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				return false;
+			}
+		}
+		
+	}
+	
 	public static class TestService extends FXMLService {
 		
 		private static final AtomicInteger FUNCTION_OPERATIONS = new AtomicInteger(0);
@@ -0,0 +1,38 @@
+package me.joshlarson.jlcommon.javafx.control;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+@RunWith(JUnit4.class)
+public class TestResourceBundleCache {
+	
+	@Test
+	public void testCached() {
+		ResourceBundleCache cache = new ResourceBundleCache(getClass().getModule());
+		ResourceBundle english = cache.get("strings", Locale.ENGLISH);
+		Assert.assertEquals("Hello", english.getString("mylabel"));
+		Assert.assertSame(english, cache.get("strings", Locale.ENGLISH));
+		Assert.assertEquals("Hallo", cache.get("strings", Locale.GERMAN).getString("mylabel"));
+	}
+	
+	@Test
+	public void testPreload() {
+		ResourceBundleCache cache = new ResourceBundleCache(getClass().getModule());
+		cache.preload("strings", List.of(Locale.ENGLISH, Locale.GERMAN));
+		Assert.assertEquals("Hallo", cache.get("strings", Locale.GERMAN).getString("mylabel"));
+		Assert.assertEquals("Hello", cache.get("strings", Locale.ENGLISH).getString("mylabel"));
+	}
+	
+	@Test(expected = MissingResourceException.class)
+	public void testMissing() {
+		new ResourceBundleCache(getClass().getModule()).get("does-not-exist", Locale.ENGLISH);
+	}
+	
+}